@@ -11,15 +11,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CounselorService {
 
+    private static final int DIRECTORY_PAGE_SIZE = 100;
+
     private final CounselorSettingsRepository settingsRepository;
     private final RestTemplate restTemplate;
 
@@ -59,28 +61,42 @@ public class CounselorService {
         return mapToSettingsResponse(settings);
     }
 
+    /**
+     * Walks auth-service's counselor directory page by page. Each page is a single keyset query on the
+     * auth side, instead of the whole user table plus one lookup per counselor.
+     */
     public List<CounselorResponse> getApprovedCounselors() {
+        List<CounselorResponse> counselors = new ArrayList<>();
         try {
-            String authServiceUrl = "http://AUTH-SERVICE/api/v1/auth/counselors";
-            ResponseEntity<ApiResponseClass> response = restTemplate.getForEntity(authServiceUrl, ApiResponseClass.class);
+            String cursor = null;
+            do {
+                String authServiceUrl = "http://AUTH-SERVICE/api/v1/auth/counselor/directory?size=" + DIRECTORY_PAGE_SIZE
+                        + (cursor != null ? "&cursor=" + cursor : "");
+                ResponseEntity<ApiResponseClass> response = restTemplate.getForEntity(authServiceUrl, ApiResponseClass.class);
+
+                if (response.getBody() == null || !response.getBody().isSuccess()) {
+                    break;
+                }
 
-            if (response.getBody() != null && response.getBody().isSuccess()) {
-                List<Map<String, Object>> counselorsData = (List<Map<String, Object>>) response.getBody().getData();
+                Map<String, Object> page = (Map<String, Object>) response.getBody().getData();
+                List<Map<String, Object>> counselorsData = (List<Map<String, Object>>) page.get("items");
 
-                return counselorsData.stream()
+                counselorsData.stream()
                         .map(userData -> CounselorResponse.builder()
                                 .id(Long.valueOf(userData.get("id").toString()))
                                 .name((String) userData.get("name"))
                                 .email((String) userData.get("email"))
                                 .profileImageUrl((String) userData.get("profileImageUrl"))
                                 .build())
-                        .collect(Collectors.toList());
-            }
+                        .forEach(counselors::add);
+
+                cursor = (String) page.get("nextCursor");
+            } while (cursor != null);
         } catch (Exception e) {
             log.error("Error fetching approved counselors: {}", e.getMessage());
         }
 
-        return List.of();
+        return counselors;
     }
 
     private CounselorSettingsResponse mapToSettingsResponse(CounselorSettings settings) {
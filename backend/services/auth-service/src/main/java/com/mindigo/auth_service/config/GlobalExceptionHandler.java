@@ -95,6 +95,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiResponseClass<Void>> handleAccessDenied(
+            AccessDeniedException ex, HttpServletRequest request) {
+        log.warn("Access denied: {} - IP: {}", ex.getMessage(), getClientIp(request));
+
+        ApiResponseClass<Void> response = ApiResponseClass.<Void>builder()
+                .success(false)
+                .message(ex.getMessage())
+                .errorCode("ACCESS_DENIED")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+    }
+
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<ApiResponseClass<Void>> handleInvalidToken(
             InvalidTokenException ex, HttpServletRequest request) {
@@ -140,6 +155,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
 
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<ApiResponseClass<Void>> handlePasswordHashingOverloaded(
+            PasswordHashingOverloadedException ex, HttpServletRequest request) {
+        log.warn("Password hashing overloaded - IP: {}", getClientIp(request));
+
+        ApiResponseClass<Void> response = ApiResponseClass.<Void>builder()
+                .success(false)
+                .message(ex.getMessage())
+                .errorCode("SERVICE_BUSY")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(response);
+    }
+
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ApiResponseClass<Void>> handleRateLimitExceeded(
             RateLimitExceededException ex, HttpServletRequest request) {
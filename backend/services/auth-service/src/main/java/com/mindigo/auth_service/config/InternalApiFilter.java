@@ -0,0 +1,71 @@
+package com.mindigo.auth_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindigo.auth_service.dto.response.ApiResponseClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Only lets requests carrying the shared service token ({@code app.internal.service-token}) reach
+ * {@code /internal/**}. Without a configured token every internal call is refused.
+ */
+@Component
+@Slf4j
+public class InternalApiFilter extends OncePerRequestFilter {
+
+    public static final String SERVICE_TOKEN_HEADER = "X-Internal-Token";
+    private static final String INTERNAL_PREFIX = "/internal/";
+
+    private final byte[] serviceToken;
+    private final ObjectMapper objectMapper;
+
+    public InternalApiFilter(@Value("${app.internal.service-token:}") String serviceToken, ObjectMapper objectMapper) {
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+        if (serviceToken.isBlank()) {
+            log.warn("app.internal.service-token is not set; internal endpoints will refuse every call");
+        }
+    }
+
+    /**
+     * Whether the request was made by another service holding the shared token.
+     */
+    public boolean isServiceCall(HttpServletRequest request) {
+        String presented = request.getHeader(SERVICE_TOKEN_HEADER);
+        // Constant-time comparison so the token can't be guessed byte by byte
+        return serviceToken.length > 0 && presented != null
+                && MessageDigest.isEqual(serviceToken, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + INTERNAL_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isServiceCall(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.warn("Refused internal call to {} from {}", request.getRequestURI(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponseClass.error("Service credentials required", "ACCESS_DENIED"));
+    }
+}
@@ -0,0 +1,189 @@
+package com.mindigo.auth_service.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary.
+ *
+ * Reads stay on the primary while the replica lags more than {@code maxLagSeconds} (or its lag probe
+ * fails), while a replica connection cannot be obtained, and for {@code stickyPrimarySeconds} after the
+ * caller's own write so they read what they just wrote. That window is carried by the
+ * {@value #STICKY_COOKIE} cookie, so it holds whichever instance serves the next request.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a connection before
+ * the transaction's read-only flag is visible, the proxy defers that until the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    public static final String STICKY_COOKIE = "rw_primary_until";
+
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+    private static final Object WRITE_TRACKED = new Object();
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final JdbcTemplate replicaProbe;
+    private final double maxLagSeconds;
+    private final long stickyPrimarySeconds;
+    private final boolean secureCookie;
+
+    private volatile boolean replicaUsable = false;
+    private volatile double replicaLagSeconds = -1;
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter replicaFallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry,
+                                      double maxLagSeconds, long stickyPrimarySeconds, boolean secureCookie) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaProbe = new JdbcTemplate(replica);
+        this.replicaProbe.setQueryTimeout(2);
+        this.maxLagSeconds = maxLagSeconds;
+        this.stickyPrimarySeconds = stickyPrimarySeconds;
+        this.secureCookie = secureCookie;
+
+        this.primaryRoutes = meterRegistry.counter("auth.datasource.route", "target", "primary");
+        this.replicaRoutes = meterRegistry.counter("auth.datasource.route", "target", "replica");
+        this.replicaFallbacks = meterRegistry.counter("auth.datasource.replica.fallbacks");
+        Gauge.builder("auth.datasource.replica.lag.seconds", this, ds -> ds.replicaLagSeconds).register(meterRegistry);
+    }
+
+    /**
+     * Marks the current request as having written recently; set from the cookie by ReadYourWritesFilter.
+     */
+    public static void setSticky(boolean sticky) {
+        if (sticky) {
+            STICKY.set(Boolean.TRUE);
+        } else {
+            STICKY.remove();
+        }
+    }
+
+    /**
+     * Runs a lookup on the primary even inside an otherwise replica-routed call, e.g. to retry a
+     * "not found" that may only be replica lag. Has no effect when routing is disabled.
+     */
+    public static <T> T onPrimary(Supplier<T> lookup) {
+        Boolean previous = STICKY.get();
+        STICKY.set(Boolean.TRUE);
+        try {
+            return lookup.get();
+        } finally {
+            if (previous == null) {
+                STICKY.remove();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkReplicaLag() {
+        try {
+            Double lag = replicaProbe.queryForObject(LAG_QUERY, Double.class);
+            replicaLagSeconds = lag != null ? lag : 0;
+            boolean usable = replicaLagSeconds <= maxLagSeconds;
+            if (usable != replicaUsable) {
+                log.info("Replica {} for reads (lag {}s)", usable ? "enabled" : "disabled", replicaLagSeconds);
+            }
+            replicaUsable = usable;
+        } catch (Exception e) {
+            if (replicaUsable) {
+                log.warn("Replica lag probe failed, reading from primary: {}", e.getMessage());
+            }
+            replicaUsable = false;
+            replicaLagSeconds = -1;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaRoutes.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Stay on the primary until the next successful probe
+                replicaUsable = false;
+                replicaFallbacks.increment();
+                log.warn("Replica connection failed, reading from primary: {}", e.getMessage());
+            }
+        }
+        primaryRoutes.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return useReplica() ? replica.getConnection(username, password) : primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return false;
+        }
+        return replicaUsable && STICKY.get() == null;
+    }
+
+    // After a read-write transaction commits, later reads of the same caller go to the primary for a while
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Only web requests: ReadYourWritesFilter clears the flag when the request ends
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                    STICKY.set(Boolean.TRUE);
+                    setStickyCookie(attributes);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    private void setStickyCookie(ServletRequestAttributes attributes) {
+        if (attributes.getResponse() == null || attributes.getResponse().isCommitted()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + stickyPrimarySeconds * 1000;
+        ResponseCookie cookie = ResponseCookie.from(STICKY_COOKIE, Long.toString(until))
+                .path("/")
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .maxAge(stickyPrimarySeconds)
+                .build();
+        attributes.getResponse().addHeader("Set-Cookie", cookie.toString());
+    }
+}
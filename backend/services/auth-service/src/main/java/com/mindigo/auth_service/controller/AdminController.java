@@ -5,10 +5,14 @@ import com.mindigo.auth_service.dto.request.CounselorApplicationCreateRequest;
 import com.mindigo.auth_service.dto.request.CounselorApplicationStatusUpdateRequest;
 import com.mindigo.auth_service.dto.response.AdminDashboardResponse;
 import com.mindigo.auth_service.dto.response.ApiResponseClass;
+import com.mindigo.auth_service.dto.response.AuditLogPageResponse;
 import com.mindigo.auth_service.dto.response.CounselorApplicationDto;
 import com.mindigo.auth_service.entity.CounselorApplicationStatus;
 import com.mindigo.auth_service.services.AdminService;
+import com.mindigo.auth_service.services.AuditLogQueryService;
+import com.mindigo.auth_service.utils.ForwardedUser;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +23,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
@@ -32,6 +41,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AuditLogQueryService auditLogQueryService;
 
     @GetMapping("/dashboard")
     @Operation(summary = "Get admin dashboard statistics")
@@ -103,8 +113,8 @@ public class AdminController {
             @Valid @RequestBody ApplicationReviewRequest request,
             HttpServletRequest httpRequest) {
 
-        // TODO: Get admin email from JWT token
-        String adminEmail = "admin@example.com"; // This should come from security context
+        // Forwarded by the gateway after verifying the caller's token
+        String adminEmail = ForwardedUser.requireAdmin(httpRequest);
 
         String result = adminService.reviewApplication(request, adminEmail, httpRequest);
 
@@ -114,6 +124,25 @@ public class AdminController {
                 .build());
     }
 
+    @PatchMapping("/users/{id}/active")
+    @Operation(summary = "Activate or deactivate a user account")
+    @ApiResponse(responseCode = "200", description = "User status updated successfully")
+    public ResponseEntity<ApiResponseClass<Void>> updateUserActiveStatus(
+            @PathVariable("id") Long userId,
+            @RequestParam("active") boolean active,
+            HttpServletRequest httpRequest) {
+
+        // Forwarded by the gateway after verifying the caller's token
+        String adminEmail = ForwardedUser.requireAdmin(httpRequest);
+
+        String result = adminService.updateUserActiveStatus(userId, active, adminEmail, httpRequest);
+
+        return ResponseEntity.ok(ApiResponseClass.<Void>builder()
+                .success(true)
+                .message(result)
+                .build());
+    }
+
     // Add these methods to your existing AdminController class
 
     @PostMapping("/counselor-applications/create")
@@ -145,4 +174,51 @@ public class AdminController {
                 .message("Counselor application status updated successfully")
                 .build());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/audit-logs")
+    @Operation(summary = "Query security audit events, newest first, with cursor pagination")
+    public ResponseEntity<ApiResponseClass<AuditLogPageResponse>> getAuditLogs(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String eventType,
+            @Parameter(description = "Inclusive lower bound, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Exclusive upper bound, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            HttpServletRequest httpRequest) {
+
+        // Forwarded by the gateway after verifying the caller's token
+        ForwardedUser.requireAdmin(httpRequest);
+
+        AuditLogPageResponse events = auditLogQueryService.findSecurityEvents(email, eventType, from, to, size, cursor);
+
+        return ResponseEntity.ok(ApiResponseClass.<AuditLogPageResponse>builder()
+                .success(true)
+                .data(events)
+                .message("Audit logs retrieved successfully")
+                .build());
+    }
+
+    @GetMapping(value = "/audit-logs/export", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all matching security audit events as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest httpRequest) {
+
+        // Forwarded by the gateway after verifying the caller's token
+        ForwardedUser.requireAdmin(httpRequest);
+        // Validate before the response starts streaming, so a bad range still gets a 400
+        auditLogQueryService.validateRange(from, to);
+
+        StreamingResponseBody body = out -> auditLogQueryService.exportSecurityEvents(email, eventType, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=\"audit-logs.ndjson\"")
+                .body(body);
+    }
+}
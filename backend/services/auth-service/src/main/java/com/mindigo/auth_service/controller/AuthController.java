@@ -1,8 +1,11 @@
 package com.mindigo.auth_service.controller;
 
+import com.mindigo.auth_service.config.InternalApiFilter;
 import com.mindigo.auth_service.dto.request.*;
 import com.mindigo.auth_service.dto.response.*;
+import com.mindigo.auth_service.exception.InvalidTokenException;
 import com.mindigo.auth_service.services.AuthenticationService;
+import com.mindigo.auth_service.utils.ForwardedUser;
 import com.mindigo.auth_service.validators.AuthValidationGroups;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,6 +34,7 @@ import java.util.List;
 public class AuthController {
 
     private final AuthenticationService authenticationService;
+    private final InternalApiFilter internalApiFilter;
 
     @GetMapping("/health")
     @Operation(summary = "Health check endpoint")
@@ -218,6 +223,29 @@ public class AuthController {
                 .build());
     }
 
+    @PostMapping("/profiles:batch")
+    @Operation(summary = "Get compact profiles for many user IDs in one call")
+    public ResponseEntity<ApiResponseClass<Map<Long, CompactProfileResponse>>> getProfilesBatch(
+            @Valid @RequestBody ProfileBatchRequest request,
+            HttpServletRequest httpRequest) {
+
+        // Signed-in users (verified by the gateway) or other services holding the service token
+        boolean serviceCall = internalApiFilter.isServiceCall(httpRequest);
+        if (!serviceCall && ForwardedUser.idOrNull(httpRequest) == null) {
+            throw new InvalidTokenException("Authentication required");
+        }
+        // Emails are only handed out to services and admins, not to any signed-in user
+        boolean includeEmail = serviceCall || ForwardedUser.isAdmin(httpRequest);
+
+        Map<Long, CompactProfileResponse> profiles = authenticationService.getProfilesByIds(request, includeEmail);
+
+        return ResponseEntity.ok(ApiResponseClass.<Map<Long, CompactProfileResponse>>builder()
+                .success(true)
+                .data(profiles)
+                .message("Profiles retrieved successfully")
+                .build());
+    }
+
     @GetMapping("/counselorprofilebyid/{id}")
     @Operation(summary = "Get counselor profile by ID")
     public ResponseEntity<ApiResponseClass<CounselorProfileResponse>> getCounselorProfileFromId(
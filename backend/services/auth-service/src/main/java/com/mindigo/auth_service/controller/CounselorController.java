@@ -1,6 +1,7 @@
 package com.mindigo.auth_service.controller;
 
 import com.mindigo.auth_service.dto.response.ApiResponseClass;
+import com.mindigo.auth_service.dto.response.CounselorDirectoryResponse;
 import com.mindigo.auth_service.dto.response.CounselorProfileResponse;
 import com.mindigo.auth_service.services.CounselorService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -46,4 +47,25 @@ public class CounselorController {
                 .message("Counselors retrieved successfully.")
                 .build());
     }
+
+    @GetMapping("/directory")
+    @Operation(summary = "Get approved counselors by rating with cursor pagination")
+    public ResponseEntity<ApiResponseClass<CounselorDirectoryResponse>> getCounselorDirectory(
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Filter by whether the counselor accepts insurance")
+            @RequestParam(required = false) Boolean acceptsInsurance,
+            @Parameter(description = "Filter by a specific specialization (case-insensitive, exact match)")
+            @RequestParam(required = false) String specialization) {
+
+        CounselorDirectoryResponse directory = counselorService.getCounselorDirectory(
+                size, cursor, acceptsInsurance, specialization);
+
+        return ResponseEntity.ok(ApiResponseClass.<CounselorDirectoryResponse>builder()
+                .success(true)
+                .data(directory)
+                .message("Counselors retrieved successfully.")
+                .build());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.mindigo.auth_service.controller;
+
+import com.mindigo.auth_service.dto.response.ApiResponseClass;
+import com.mindigo.auth_service.dto.response.RevocationFeedResponse;
+import com.mindigo.auth_service.services.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Service-to-service endpoints. Not routed by the gateway, and every call must carry the shared
+ * service token (see {@link com.mindigo.auth_service.config.InternalApiFilter}).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal")
+@Tag(name = "Internal", description = "Service-to-service endpoints")
+public class InternalController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @GetMapping("/revocations")
+    @Operation(summary = "Poll revoked tokens and users after a (revokedAt, id) position (used by gateways)")
+    public ResponseEntity<ApiResponseClass<RevocationFeedResponse>> getRevocations(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId) {
+
+        RevocationFeedResponse feed = tokenRevocationService.getRevocationsSince(since, afterId);
+
+        return ResponseEntity.ok(ApiResponseClass.<RevocationFeedResponse>builder()
+                .success(true)
+                .data(feed)
+                .message("Revocations retrieved successfully")
+                .build());
+    }
+}
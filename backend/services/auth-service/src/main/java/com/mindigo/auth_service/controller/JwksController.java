@@ -0,0 +1,30 @@
+package com.mindigo.auth_service.controller;
+
+import com.mindigo.auth_service.services.SigningKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Public keys for verifying tokens issued by this service")
+public class JwksController {
+
+    private final SigningKeyService signingKeyService;
+
+    // Plain RFC 7517 document rather than ApiResponseClass so standard JWT libraries can consume it
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "Published JWT signing keys")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeyService.jwks());
+    }
+}
@@ -0,0 +1,16 @@
+package com.mindigo.auth_service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One security event from audit_logs, as returned by the admin audit log query and export.
+ */
+public record AuditLogEntry(
+        Long id,
+        String eventType,
+        String userEmail,
+        String description,
+        String ipAddress,
+        LocalDateTime timestamp
+) {
+}
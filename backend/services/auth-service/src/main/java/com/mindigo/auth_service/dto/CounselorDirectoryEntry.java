@@ -0,0 +1,18 @@
+package com.mindigo.auth_service.dto;
+
+/**
+ * Row of the counselor directory: the user and counselor columns a listing needs, read with one
+ * join instead of loading both entities. {@code id} is the user id, as everywhere else in the API.
+ */
+public record CounselorDirectoryEntry(
+        Long id,
+        Long counselorId,
+        String name,
+        String email,
+        String profileImageUrl,
+        String specialization,
+        Boolean acceptsInsurance,
+        Double averageRating,
+        Integer totalRatings
+) {
+}
@@ -0,0 +1,72 @@
+package com.mindigo.auth_service.dto;
+
+import com.mindigo.auth_service.entity.CounselorStatus;
+import com.mindigo.auth_service.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the fields of {@link com.mindigo.auth_service.entity.User} needed to
+ * authenticate and validate tokens, loaded with a single query and kept in
+ * {@link com.mindigo.auth_service.services.UserPrincipalCache}. Account checks mirror the entity's.
+ */
+public record UserPrincipal(
+        Long id,
+        String email,
+        String password,
+        Role role,
+        String name,
+        Boolean active,
+        Boolean emailVerified,
+        Boolean locked,
+        LocalDateTime lockedUntil,
+        CounselorStatus counselorStatus
+) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return switch (role) {
+            case ADMIN -> List.of(new SimpleGrantedAuthority("ROLE_ADMIN"),
+                    new SimpleGrantedAuthority("PERMISSION_READ_ALL_USERS"),
+                    new SimpleGrantedAuthority("PERMISSION_MANAGE_USERS"),
+                    new SimpleGrantedAuthority("PERMISSION_DELETE_USERS"));
+            case MODERATOR -> List.of(new SimpleGrantedAuthority("ROLE_MODERATOR"),
+                    new SimpleGrantedAuthority("PERMISSION_READ_USERS"),
+                    new SimpleGrantedAuthority("PERMISSION_MODERATE_CONTENT"));
+            case USER -> List.of(new SimpleGrantedAuthority("ROLE_USER"),
+                    new SimpleGrantedAuthority("PERMISSION_READ_PROFILE"),
+                    new SimpleGrantedAuthority("PERMISSION_UPDATE_PROFILE"));
+            default -> List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        };
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        // An elapsed lock counts as unlocked, like User.isAccountLocked()
+        return !Boolean.TRUE.equals(locked) || (lockedUntil != null && LocalDateTime.now().isAfter(lockedUntil));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        boolean enabled = Boolean.TRUE.equals(active) && Boolean.TRUE.equals(emailVerified);
+        if (role == Role.COUNSELOR) {
+            return enabled && counselorStatus == CounselorStatus.APPROVED;
+        }
+        return enabled;
+    }
+}
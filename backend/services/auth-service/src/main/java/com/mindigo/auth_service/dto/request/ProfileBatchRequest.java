@@ -0,0 +1,22 @@
+package com.mindigo.auth_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileBatchRequest {
+
+    @NotEmpty(message = "At least one user id is required")
+    private List<Integer> ids;
+
+    // Any of "name", "email", "role", "image"; all of them when omitted
+    private List<String> fields;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,4 +20,6 @@ public class AdminDashboardResponse {
     private long totalCounselors;
     private long activeUsers;
     private long recentApplications; // Last 7 days
+    // Counters are exact as of this time plus the changes made through this instance since
+    private LocalDateTime reconciledAt;
 }
@@ -0,0 +1,38 @@
+package com.mindigo.auth_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mindigo.auth_service.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Profile returned by the batch lookup; only the requested fields are filled in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactProfileResponse {
+    private Long id;
+    private String name;
+    private String email;
+    private String role;
+    private String profileImageUrl;
+
+    public enum Field { NAME, EMAIL, ROLE, IMAGE }
+
+    public static CompactProfileResponse fromUser(User user, Set<Field> fields) {
+        return CompactProfileResponse.builder()
+                .id(user.getId())
+                .name(fields.contains(Field.NAME) ? user.getName() : null)
+                .email(fields.contains(Field.EMAIL) ? user.getEmail() : null)
+                .role(fields.contains(Field.ROLE) ? user.getRole().name() : null)
+                .profileImageUrl(fields.contains(Field.IMAGE) ? user.getProfileImageUrl() : null)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mindigo.auth_service.dto.response;
+
+import com.mindigo.auth_service.dto.CounselorDirectoryEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounselorDirectoryResponse {
+    private List<CounselorDirectoryEntry> items;
+    // Pass back as "cursor" for the next page; null on the last page
+    private String nextCursor;
+}
@@ -13,6 +13,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Data
@@ -42,6 +43,8 @@ public class CounselorProfileResponse {
     private String verificationNotes;
     private Boolean acceptsInsurance; // Renamed for consistency
     private Double ratings; // This seems to be hardcoded, which is fine for now
+    private Integer totalRatings;
+    private Map<Integer, Integer> ratingHistogram; // stars (1..5) -> number of ratings
 
     public static CounselorProfileResponse fromUser(User user) {
         if (user == null) {
@@ -73,12 +76,49 @@ public class CounselorProfileResponse {
                     .adminVerifiedBy(counselorDetails.getAdminVerifiedBy())
                     .adminVerifiedAt(counselorDetails.getAdminVerifiedAt())
                     .verificationNotes(counselorDetails.getVerificationNotes())
-                    .acceptsInsurance(counselorDetails.getAcceptsInsurance());
+                    .acceptsInsurance(counselorDetails.getAcceptsInsurance())
+                    .totalRatings(counselorDetails.getTotalRatings())
+                    .ratingHistogram(counselorDetails.getRatingHistogram());
         }
 
         return builder.build();
     }
 
+    /**
+     * Same as {@link #fromUser} but starting from the owning side, so a counselor loaded together
+     * with its user (fetch join) is mapped without further queries.
+     */
+    public static CounselorProfileResponse fromCounselor(Counselor counselor) {
+        if (counselor == null) {
+            return null;
+        }
+
+        User user = counselor.getUser();
+        return CounselorProfileResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .dateOfBirth(user.getDateOfBirth())
+                .gender(user.getGender() != null ? user.getGender().name() : null)
+                .isEmailVerified(user.getIsEmailVerified())
+                .profileImageUrl(user.getProfileImageUrl())
+                .createdAt(user.getCreatedAt())
+                .lastLoginAt(user.getLastLoginAt())
+                .ratings(counselor.getAverageRating())
+                .licenseNumber(counselor.getLicenseNumber())
+                .specialization(counselor.getSpecialization())
+                .verificationDocumentUrl(counselor.getVerificationDocumentUrl())
+                .counselorStatus(counselor.getCounselorStatus())
+                .adminVerifiedBy(counselor.getAdminVerifiedBy())
+                .adminVerifiedAt(counselor.getAdminVerifiedAt())
+                .verificationNotes(counselor.getVerificationNotes())
+                .acceptsInsurance(counselor.getAcceptsInsurance())
+                .totalRatings(counselor.getTotalRatings())
+                .ratingHistogram(counselor.getRatingHistogram())
+                .build();
+    }
+
     public static List<CounselorProfileResponse> fromUsers(List<User> users) {
         if (users == null) {
             return new ArrayList<>();
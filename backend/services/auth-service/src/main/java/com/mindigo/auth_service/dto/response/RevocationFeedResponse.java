@@ -0,0 +1,46 @@
+package com.mindigo.auth_service.dto.response;
+
+import com.mindigo.auth_service.entity.RevocationType;
+import com.mindigo.auth_service.entity.TokenRevocation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZoneId;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationFeedResponse {
+    // Position of the last event (revokedAt epoch millis, id); pass back as "since"/"afterId" for the next page
+    private long cursor;
+    private long cursorId;
+    // More events follow in the current order; request the next page right away
+    private boolean hasMore;
+    private List<Event> events;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        private long id;
+        private RevocationType type;
+        private String subject;
+        private long revokedAt; // epoch millis
+        private long expiresAt; // epoch millis
+
+        public static Event fromRevocation(TokenRevocation revocation) {
+            return Event.builder()
+                    .id(revocation.getId())
+                    .type(revocation.getType())
+                    .subject(revocation.getSubject())
+                    .revokedAt(revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                    .expiresAt(revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                    .build();
+        }
+    }
+}
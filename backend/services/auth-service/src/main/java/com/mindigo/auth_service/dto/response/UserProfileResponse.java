@@ -25,6 +25,8 @@ public class UserProfileResponse {
     private String gender;
     private boolean isEmailVerified;
     private String profileImageUrl;
+    // PENDING right after registration until the upload finishes; show a placeholder meanwhile
+    private String profileImageStatus;
     private LocalDateTime createdAt;
     private LocalDateTime lastLoginAt;
 
@@ -38,6 +40,7 @@ public class UserProfileResponse {
                 .gender(String.valueOf(user.getGender()))
                 .isEmailVerified(user.getIsEmailVerified())
                 .profileImageUrl(user.getProfileImageUrl())
+                .profileImageStatus(user.getProfileImageStatus() != null ? user.getProfileImageStatus().name() : null)
                 .createdAt(user.getCreatedAt())
                 .lastLoginAt(user.getLastLoginAt())
                 .build();
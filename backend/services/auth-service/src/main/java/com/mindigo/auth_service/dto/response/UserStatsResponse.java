@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,6 @@ public class UserStatsResponse {
     private long totalUsers;
     private long totalCounselors;
     private long totalActiveUsers;
+    // Counters are exact as of this time plus the changes made through this instance since
+    private LocalDateTime reconciledAt;
 }
\ No newline at end of file
@@ -17,11 +17,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "admin_audit_logs", indexes = {
-        @Index(name = "idx_audit_admin_email", columnList = "admin_email"),
-        @Index(name = "idx_audit_action_type", columnList = "action_type"),
-        @Index(name = "idx_audit_timestamp", columnList = "timestamp")
-})
+// Partitioned by month on timestamp; the table and its indexes are managed by AuditLogPartitionManager
+@Table(name = "admin_audit_logs")
 public class AdminAuditLog {
 
     @Id
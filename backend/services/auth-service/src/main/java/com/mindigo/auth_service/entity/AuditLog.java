@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Partitioned by month on timestamp; the table and its indexes are managed by AuditLogPartitionManager
 @Table(name = "audit_logs")
 public class AuditLog {
 
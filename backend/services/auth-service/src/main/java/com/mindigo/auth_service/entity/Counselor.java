@@ -5,12 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -19,7 +22,9 @@ import java.util.List;
 @Entity
 @Table(name = "counselors", indexes = {
         @Index(name = "idx_counselor_user_id", columnList = "user_id", unique = true),
-        @Index(name = "idx_counselor_status", columnList = "counselor_status")
+        @Index(name = "idx_counselor_status", columnList = "counselor_status"),
+        // Serves the directory's keyset order (see CounselorRepository.findDirectoryAfter)
+        @Index(name = "idx_counselor_directory", columnList = "counselor_status, average_rating DESC, id DESC")
 })
 public class Counselor {
 
@@ -68,7 +73,9 @@ public class Counselor {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
-    @Column(name = "average_rating")
+    // NOT NULL: the directory's keyset pagination compares it, and NULL would never match the cursor
+    @Column(name = "average_rating", nullable = false)
+    @ColumnDefault("0")
     @Builder.Default
     private Double averageRating = 0.0;
 
@@ -76,6 +83,38 @@ public class Counselor {
     @Builder.Default
     private Integer totalRatings = 0;
 
+    // Running aggregates maintained by CounselorRepository.addRating; averageRating = ratingSum / totalRatings
+    @Column(name = "rating_sum", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    // Star histogram, number of 1..5 star ratings
+    @Column(name = "rating_count_1", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer ratingCount1 = 0;
+
+    @Column(name = "rating_count_2", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer ratingCount2 = 0;
+
+    @Column(name = "rating_count_3", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer ratingCount3 = 0;
+
+    @Column(name = "rating_count_4", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer ratingCount4 = 0;
+
+    @Column(name = "rating_count_5", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer ratingCount5 = 0;
+
     @OneToMany(mappedBy = "counselor", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<CounselorRating> ratings = new ArrayList<>();
@@ -97,6 +136,17 @@ public class Counselor {
         this.verificationNotes = notes;
     }
 
+    // Stars (1..5) to number of ratings with that many stars
+    public Map<Integer, Integer> getRatingHistogram() {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(1, ratingCount1);
+        histogram.put(2, ratingCount2);
+        histogram.put(3, ratingCount3);
+        histogram.put(4, ratingCount4);
+        histogram.put(5, ratingCount5);
+        return histogram;
+    }
+
     public void reject(Long adminId, String notes) {
         this.counselorStatus = CounselorStatus.REJECTED;
         this.adminVerifiedBy = adminId;
@@ -0,0 +1,8 @@
+package com.mindigo.auth_service.entity;
+
+public enum EmailOutboxStatus {
+    PENDING, // waiting for its next attempt
+    SENDING, // claimed by a dispatcher until locked_until
+    SENT,
+    FAILED   // gave up after the maximum number of attempts
+}
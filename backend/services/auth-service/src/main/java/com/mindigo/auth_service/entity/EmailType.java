@@ -0,0 +1,12 @@
+package com.mindigo.auth_service.entity;
+
+// Kind of transactional email; at most one pending message per recipient and type is kept in the outbox
+public enum EmailType {
+    OTP,
+    PASSWORD_RESET,
+    PASSWORD_CHANGED,
+    COUNSELOR_REGISTRATION,
+    COUNSELOR_APPROVED,
+    COUNSELOR_REJECTED,
+    COUNSELOR_ADDITIONAL_INFO
+}
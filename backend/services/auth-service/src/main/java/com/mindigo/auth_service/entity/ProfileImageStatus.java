@@ -0,0 +1,7 @@
+package com.mindigo.auth_service.entity;
+
+public enum ProfileImageStatus {
+    PENDING, // registration committed, upload to file-server still running
+    READY,
+    FAILED   // upload gave up; the user has no image
+}
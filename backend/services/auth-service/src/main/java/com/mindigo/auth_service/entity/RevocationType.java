@@ -0,0 +1,6 @@
+package com.mindigo.auth_service.entity;
+
+public enum RevocationType {
+    TOKEN, // subject is the SHA-256 digest of a single token
+    USER   // subject is a user id; every token issued before revokedAt is rejected
+}
@@ -0,0 +1,51 @@
+package com.mindigo.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Asymmetric key pair used to sign JWTs. The public half is published on /.well-known/jwks.json
+ * from creation until {@code expiresAt}; the private half is stored wrapped, see SigningKeyService.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "signing_keys", indexes = {
+        @Index(name = "idx_signing_key_expires_at", columnList = "expires_at")
+})
+public class SigningKey {
+
+    // Sent as the "kid" header of every token signed with this key
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    // X.509 SubjectPublicKeyInfo, base64
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey;
+
+    // PKCS#8 encrypted with AES-GCM, base64 of iv || ciphertext
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Published ahead of this point so verifiers already know the key when the first token arrives
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+
+    // Set once a newer key takes over: every token this key signed has expired by then
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
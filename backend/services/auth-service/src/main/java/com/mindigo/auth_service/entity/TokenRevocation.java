@@ -0,0 +1,41 @@
+package com.mindigo.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_revocation_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revocation_revoked_at", columnList = "revoked_at, id"),
+        @Index(name = "idx_revocation_subject", columnList = "subject")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RevocationType type;
+
+    @Column(nullable = false, length = 100)
+    private String subject;
+
+    // Feed cursor for subscribers, together with id as a tie-breaker
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    // After this point every affected token has expired on its own and the entry can be dropped
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -57,6 +57,11 @@ public class User implements UserDetails {
     @Column(name = "profile_image_url", length = 500)
     private String profileImageUrl;
 
+    // Null when the user never sent an image
+    @Enumerated(EnumType.STRING)
+    @Column(name = "profile_image_status", length = 20)
+    private ProfileImageStatus profileImageStatus;
+
     @Column(name = "is_email_verified", nullable = false)
     @Builder.Default
     private Boolean isEmailVerified = false;
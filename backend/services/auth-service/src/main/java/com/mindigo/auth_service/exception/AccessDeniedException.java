@@ -0,0 +1,8 @@
+// AccessDeniedException.java
+package com.mindigo.auth_service.exception;
+
+public class AccessDeniedException extends AuthenticationException {
+    public AccessDeniedException(String message) {
+        super(message);
+    }
+}
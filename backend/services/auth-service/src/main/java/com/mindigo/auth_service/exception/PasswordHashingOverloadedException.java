@@ -0,0 +1,8 @@
+package com.mindigo.auth_service.exception;
+
+// Thrown when the password hashing executor is saturated; mapped to 503 with Retry-After
+public class PasswordHashingOverloadedException extends AuthenticationException {
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,10 +18,13 @@ public interface CounselorApplicationRepository extends JpaRepository<CounselorA
 
     Page<CounselorApplication> findByStatus(CounselorApplicationStatus status, Pageable pageable);
 
-    long countByStatus(CounselorApplicationStatus status);
+    // One row per status with its application count, for DashboardStatistics
+    @Query("SELECT c.status, COUNT(c) FROM CounselorApplication c GROUP BY c.status")
+    List<Object[]> countGroupedByStatus();
 
-    @Query("SELECT COUNT(c) FROM CounselorApplication c WHERE c.createdAt >= :since")
-    long countRecentApplications(@Param("since") LocalDateTime since);
+    @Query(value = "SELECT date_trunc('hour', created_at), COUNT(*) FROM counselor_applications " +
+            "WHERE created_at >= :since GROUP BY 1", nativeQuery = true)
+    List<Object[]> countCreatedPerHourSince(@Param("since") LocalDateTime since);
 
     // Add this method
     Optional<CounselorApplication> findByEmail(String email);
@@ -4,7 +4,6 @@ import com.mindigo.auth_service.entity.CounselorRating;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.List;
 
 public interface CounselorRatingRepository extends JpaRepository<CounselorRating, Long> {
 
@@ -17,9 +16,6 @@ public interface CounselorRatingRepository extends JpaRepository<CounselorRating
      */
     Page<CounselorRating> findByCounselorId(Long counselorId, Pageable pageable);
 
-    // This method is used for updating the average and can remain as is
-    List<CounselorRating> findByCounselorId(Long counselorId);
-
     // Check if a user has already rated a counselor
     boolean existsByCounselorIdAndUserId(Long counselorId, Long userId);
 }
\ No newline at end of file
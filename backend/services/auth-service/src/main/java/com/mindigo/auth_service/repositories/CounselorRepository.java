@@ -1,14 +1,103 @@
 package com.mindigo.auth_service.repositories;
 
+import com.mindigo.auth_service.dto.CounselorDirectoryEntry;
 import com.mindigo.auth_service.entity.Counselor;
 import com.mindigo.auth_service.entity.CounselorStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CounselorRepository extends JpaRepository<Counselor, Long> {
     boolean existsByLicenseNumber(String licenseNumber);
 
+    // Fetch the user in the same query instead of one lazy load per counselor
+    @EntityGraph(attributePaths = "user")
     Page<Counselor> findAll(Specification<Counselor> spec, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT c FROM Counselor c JOIN FETCH c.user")
+    List<Counselor> findAllWithUser();
+
+    @Query("SELECT c FROM Counselor c JOIN FETCH c.user WHERE c.id IN :ids")
+    List<Counselor> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c FROM Counselor c JOIN FETCH c.user WHERE c.id IN :ids AND c.counselorStatus = :status")
+    List<Counselor> findAllWithUserByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                                   @Param("status") CounselorStatus status);
+
+    @Query("SELECT c FROM Counselor c JOIN FETCH c.user u WHERE c.counselorStatus = :status " +
+            "ORDER BY c.averageRating DESC, c.id DESC")
+    List<Counselor> findAllWithUserByStatus(@Param("status") CounselorStatus status);
+
+    // Directory pages are ordered by (averageRating, id) descending, matching idx_counselor_directory.
+    // The first page has no cursor; later pages continue strictly after the last row returned.
+    @Query("SELECT new com.mindigo.auth_service.dto.CounselorDirectoryEntry(u.id, c.id, u.name, u.email, " +
+            "u.profileImageUrl, c.specialization, c.acceptsInsurance, c.averageRating, c.totalRatings) " +
+            "FROM Counselor c JOIN c.user u " +
+            "WHERE c.counselorStatus = com.mindigo.auth_service.entity.CounselorStatus.APPROVED " +
+            "AND (:acceptsInsurance IS NULL OR c.acceptsInsurance = :acceptsInsurance) " +
+            "AND (:specialization IS NULL OR LOWER(c.specialization) = :specialization) " +
+            "ORDER BY c.averageRating DESC, c.id DESC")
+    List<CounselorDirectoryEntry> findDirectoryFirstPage(@Param("acceptsInsurance") Boolean acceptsInsurance,
+                                                         @Param("specialization") String specialization,
+                                                         Pageable pageable);
+
+    @Query("SELECT new com.mindigo.auth_service.dto.CounselorDirectoryEntry(u.id, c.id, u.name, u.email, " +
+            "u.profileImageUrl, c.specialization, c.acceptsInsurance, c.averageRating, c.totalRatings) " +
+            "FROM Counselor c JOIN c.user u " +
+            "WHERE c.counselorStatus = com.mindigo.auth_service.entity.CounselorStatus.APPROVED " +
+            "AND (c.averageRating < :rating OR (c.averageRating = :rating AND c.id < :counselorId)) " +
+            "AND (:acceptsInsurance IS NULL OR c.acceptsInsurance = :acceptsInsurance) " +
+            "AND (:specialization IS NULL OR LOWER(c.specialization) = :specialization) " +
+            "ORDER BY c.averageRating DESC, c.id DESC")
+    List<CounselorDirectoryEntry> findDirectoryAfter(@Param("rating") Double rating,
+                                                     @Param("counselorId") Long counselorId,
+                                                     @Param("acceptsInsurance") Boolean acceptsInsurance,
+                                                     @Param("specialization") String specialization,
+                                                     Pageable pageable);
+
+    /**
+     * Adds one rating to the counselor's running aggregates in a single atomic statement, so
+     * concurrent ratings can't overwrite each other. Right-hand sides see the pre-update row.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE counselors SET " +
+            "rating_sum = rating_sum + :stars, " +
+            "total_ratings = COALESCE(total_ratings, 0) + 1, " +
+            "average_rating = ROUND(CAST(rating_sum + :stars AS numeric) / (COALESCE(total_ratings, 0) + 1), 1), " +
+            "rating_count_1 = rating_count_1 + CASE WHEN :stars = 1 THEN 1 ELSE 0 END, " +
+            "rating_count_2 = rating_count_2 + CASE WHEN :stars = 2 THEN 1 ELSE 0 END, " +
+            "rating_count_3 = rating_count_3 + CASE WHEN :stars = 3 THEN 1 ELSE 0 END, " +
+            "rating_count_4 = rating_count_4 + CASE WHEN :stars = 4 THEN 1 ELSE 0 END, " +
+            "rating_count_5 = rating_count_5 + CASE WHEN :stars = 5 THEN 1 ELSE 0 END " +
+            "WHERE id = :counselorId", nativeQuery = true)
+    int addRating(@Param("counselorId") Long counselorId, @Param("stars") int stars);
+
+    /**
+     * Recomputes every counselor's aggregates from counselor_ratings with one GROUP BY and rewrites
+     * only the rows that drifted. Returns the number of repaired counselors.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE counselors c SET " +
+            "rating_sum = agg.rating_sum, total_ratings = agg.total, " +
+            "average_rating = CASE WHEN agg.total = 0 THEN 0 ELSE ROUND(CAST(agg.rating_sum AS numeric) / agg.total, 1) END, " +
+            "rating_count_1 = agg.c1, rating_count_2 = agg.c2, rating_count_3 = agg.c3, " +
+            "rating_count_4 = agg.c4, rating_count_5 = agg.c5 " +
+            "FROM (SELECT co.id, COALESCE(SUM(r.rating), 0) AS rating_sum, COUNT(r.id) AS total, " +
+            "COUNT(r.id) FILTER (WHERE r.rating = 1) AS c1, COUNT(r.id) FILTER (WHERE r.rating = 2) AS c2, " +
+            "COUNT(r.id) FILTER (WHERE r.rating = 3) AS c3, COUNT(r.id) FILTER (WHERE r.rating = 4) AS c4, " +
+            "COUNT(r.id) FILTER (WHERE r.rating = 5) AS c5 " +
+            "FROM counselors co LEFT JOIN counselor_ratings r ON r.counselor_id = co.id GROUP BY co.id) agg " +
+            "WHERE c.id = agg.id AND (c.average_rating IS NULL OR c.rating_sum <> agg.rating_sum " +
+            "OR c.total_ratings IS DISTINCT FROM agg.total " +
+            "OR c.rating_count_1 <> agg.c1 OR c.rating_count_2 <> agg.c2 OR c.rating_count_3 <> agg.c3 " +
+            "OR c.rating_count_4 <> agg.c4 OR c.rating_count_5 <> agg.c5)", nativeQuery = true)
+    int repairRatingAggregates();
+}
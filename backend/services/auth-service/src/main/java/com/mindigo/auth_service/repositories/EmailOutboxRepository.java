@@ -0,0 +1,72 @@
+package com.mindigo.auth_service.repositories;
+
+import com.mindigo.auth_service.entity.EmailOutbox;
+import com.mindigo.auth_service.entity.EmailType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Replaces the content of the recipient's PENDING email of this type. A row the dispatcher has
+     * already claimed is SENDING and left alone; the caller then inserts a new one.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.subject = :subject, e.body = :body, e.nextAttemptAt = :now " +
+            "WHERE e.recipient = :recipient AND e.emailType = :type " +
+            "AND e.status = com.mindigo.auth_service.entity.EmailOutboxStatus.PENDING")
+    int replacePending(@Param("recipient") String recipient,
+                       @Param("type") EmailType type,
+                       @Param("subject") String subject,
+                       @Param("body") String body,
+                       @Param("now") LocalDateTime now);
+
+    // Two requests that both found nothing to replace end up with one row, holding the later content
+    @Modifying
+    @Query(value = "INSERT INTO email_outbox (recipient, email_type, subject, body, status, attempts, " +
+            "next_attempt_at, created_at) VALUES (:recipient, :type, :subject, :body, 'PENDING', 0, :now, :now) " +
+            "ON CONFLICT (recipient, email_type) WHERE status = 'PENDING' " +
+            "DO UPDATE SET subject = EXCLUDED.subject, body = EXCLUDED.body, next_attempt_at = EXCLUDED.next_attempt_at",
+            nativeQuery = true)
+    int insertPending(@Param("recipient") String recipient,
+                      @Param("type") String type,
+                      @Param("subject") String subject,
+                      @Param("body") String body,
+                      @Param("now") LocalDateTime now);
+
+    // Keeps the newest PENDING row per recipient and type, so the unique index below can be built
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox e WHERE e.status = 'PENDING' AND EXISTS (" +
+            "SELECT 1 FROM email_outbox n WHERE n.recipient = e.recipient AND n.email_type = e.email_type " +
+            "AND n.status = 'PENDING' AND n.id > e.id)", nativeQuery = true)
+    int deleteSupersededPending();
+
+    @Modifying
+    @Query(value = "CREATE UNIQUE INDEX IF NOT EXISTS uq_email_outbox_pending " +
+            "ON email_outbox (recipient, email_type) WHERE status = 'PENDING'", nativeQuery = true)
+    void createPendingUniqueIndex();
+
+    // SKIP LOCKED lets several instances claim disjoint batches without waiting on each other
+    @Query(value = "SELECT * FROM email_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // The body (OTPs, reset links) is cleared once delivered; only the metadata is kept until the purge
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.mindigo.auth_service.entity.EmailOutboxStatus.SENT, " +
+            "e.sentAt = :now, e.lockedUntil = null, e.body = '' WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = com.mindigo.auth_service.entity.EmailOutboxStatus.SENT " +
+            "AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,7 +1,6 @@
 package com.mindigo.auth_service.repositories;
 
 import com.mindigo.auth_service.dto.response.ApiResponseClass;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ByteArrayResource;
@@ -14,61 +13,20 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
-@RequiredArgsConstructor
 public class ImageService {
 
     @Autowired
     private RestTemplate restTemplate;
-    private final UserRepository repository;
 
     /**
-     * This async method handles the file upload to the external file server.
-     * It does not contain any database transactions itself.
+     * Uploads a file to the file server and returns its URL, or null on any failure.
+     * Blocks for the whole upload; registration hands profile images to ProfileImageUploader instead.
      * @param email The user's email address.
      * @param file The image file to be uploaded.
      */
-//    @Async
     public String processUserProfileImageUpload(String email, MultipartFile file) {
-
         try {
-            String originalFilename = file.getOriginalFilename();
-            String sanitizedFilename = sanitizeFilename(originalFilename);
-            // Prepare the multipart form data
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", new ByteArrayResource(file.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return sanitizedFilename;
-                }
-            });
-
-            HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-            // Using the service name from the code, assuming it's a microservice registered with a discovery server.
-            String fileServiceUrl = "http://FILE-SERVER/api/v1/file/upload/images";
-
-            // Make the REST call to the file server
-            // Somik Dasgupta made a change regarding new response type of File server
-            ResponseEntity<ApiResponseClass<String>> response =
-                    restTemplate.exchange(
-                            fileServiceUrl,
-                            HttpMethod.POST,
-                            requestEntity,
-                            new ParameterizedTypeReference<ApiResponseClass<String>>() {}
-                    );
-
-
-//            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-//                String imageAddress = response.getBody();
-//                // Call a separate, transactional method to update the user.
-//                updateUserProfileImageUrl(email, imageAddress);
-//                System.out.println("Uploaded image URL: " + imageAddress);
-//            } else {
-//                System.err.println("Failed to upload image: Invalid response from file-service");
-//            }
-            return response.getBody().getData();
+            return uploadImage(file.getOriginalFilename(), file.getBytes());
         } catch (HttpClientErrorException e) {
             System.err.println("Failed to upload image: " + e.getMessage());
         } catch (Exception e) {
@@ -77,6 +35,45 @@ public class ImageService {
         return null;
     }
 
+    /**
+     * Uploads the content to the file server and returns its URL. Throws
+     * {@link HttpClientErrorException} when the file server rejects the file and another
+     * {@link RuntimeException} for failures that may succeed on retry.
+     */
+    public String uploadImage(String originalFilename, byte[] content) {
+        String sanitizedFilename = sanitizeFilename(originalFilename);
+        // Prepare the multipart form data
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return sanitizedFilename;
+            }
+        });
+
+        HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        // Using the service name from the code, assuming it's a microservice registered with a discovery server.
+        String fileServiceUrl = "http://FILE-SERVER/api/v1/file/upload/images";
+
+        // Make the REST call to the file server
+        // Somik Dasgupta made a change regarding new response type of File server
+        ResponseEntity<ApiResponseClass<String>> response =
+                restTemplate.exchange(
+                        fileServiceUrl,
+                        HttpMethod.POST,
+                        requestEntity,
+                        new ParameterizedTypeReference<ApiResponseClass<String>>() {}
+                );
+
+        if (response.getBody() == null || response.getBody().getData() == null) {
+            throw new IllegalStateException("Invalid response from file-service");
+        }
+        return response.getBody().getData();
+    }
+
     private String sanitizeFilename(String filename) {
         if (filename == null) {
             return "default_filename.png"; // Fallback in case filename is null
@@ -84,25 +81,4 @@ public class ImageService {
         // Replace spaces and colons with underscores, and remove other invalid characters
         return filename.replaceAll("[\\s:]+", "_").replaceAll("[^a-zA-Z0-9._-]", "");
     }
-
-    /**
-     * This method is transactional and only handles the database update.
-     * It should be called after the image has been successfully uploaded.
-     * @param email The user's email address.
-     * @param imageUrl The URL of the uploaded image.
-     */
-//    @Transactional
-//    public void updateUserProfileImageUrl(String email, String imageUrl) throws InterruptedException {
-//        User user = repository.findUserByEmail(email);
-//        for (int i=0;i<10 && user == null; i++) {
-//            Thread.sleep(1000);
-//            user = repository.findUserByEmail(email);
-//        }
-//        if (user != null) {
-//            user.setProfileImageUrl(imageUrl);
-//            repository.save(user); // The save operation is wrapped in a transaction here.
-//        } else {
-//            System.err.println("User with email " + email + " not found during URL update.");
-//        }
-//    }
 }
@@ -0,0 +1,25 @@
+package com.mindigo.auth_service.repositories;
+
+import com.mindigo.auth_service.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    @Query("SELECT k FROM SigningKey k WHERE k.expiresAt IS NULL OR k.expiresAt > :now ORDER BY k.activatesAt DESC")
+    List<SigningKey> findPublished(@Param("now") LocalDateTime now);
+
+    // Schedules the end of every key without an expiry, i.e. the ones a new key replaces
+    @Modifying
+    @Query("UPDATE SigningKey k SET k.expiresAt = :expiresAt WHERE k.expiresAt IS NULL AND k.kid <> :kid")
+    int retireOthers(@Param("kid") String kid, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM SigningKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
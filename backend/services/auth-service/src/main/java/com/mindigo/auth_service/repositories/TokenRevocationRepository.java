@@ -0,0 +1,40 @@
+package com.mindigo.auth_service.repositories;
+
+import com.mindigo.auth_service.entity.TokenRevocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // Feed page in (revokedAt, id) order, strictly after the given position
+    @Query("SELECT r FROM TokenRevocation r WHERE r.expiresAt > :now " +
+            "AND (r.revokedAt > :since OR (r.revokedAt = :since AND r.id > :afterId)) " +
+            "ORDER BY r.revokedAt ASC, r.id ASC")
+    List<TokenRevocation> findFeedPage(@Param("since") LocalDateTime since,
+                                       @Param("afterId") Long afterId,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    /**
+     * True if the token itself was revoked, or all tokens of its user issued at or before
+     * {@code issuedAt} were.
+     */
+    @Query("SELECT COUNT(r) > 0 FROM TokenRevocation r WHERE r.expiresAt > :now AND (" +
+            "(r.type = com.mindigo.auth_service.entity.RevocationType.TOKEN AND r.subject = :digest) OR " +
+            "(r.type = com.mindigo.auth_service.entity.RevocationType.USER AND r.subject = :userId " +
+            "AND r.revokedAt >= :issuedAt))")
+    boolean isRevoked(@Param("digest") String digest,
+                      @Param("userId") String userId,
+                      @Param("issuedAt") LocalDateTime issuedAt,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
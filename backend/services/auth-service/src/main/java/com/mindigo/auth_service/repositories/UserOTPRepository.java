@@ -2,6 +2,9 @@ package com.mindigo.auth_service.repositories;
 
 import com.mindigo.auth_service.entity.UserOTP;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -11,5 +14,20 @@ public interface UserOTPRepository extends JpaRepository<UserOTP, Integer> {
     UserOTP findUserByEmail(String email);
     Optional<UserOTP> findByEmailAndExpiryTimeAfter(String email, LocalDateTime time);
     void deleteByEmailAndExpiryTimeBefore(String email, LocalDateTime time);
-}
 
+    Optional<UserOTP> findFirstByEmailAndExpiryTimeAfterOrderByIdDesc(String email, LocalDateTime time);
+
+    @Modifying
+    @Query("DELETE FROM UserOTP o WHERE o.email = :email")
+    int deleteAllByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE UserOTP o SET o.attempts = o.attempts + 1 WHERE o.email = :email AND o.expiryTime > :now")
+    int incrementAttempts(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    // At most :limit rows per call so a large backlog is purged in short transactions
+    @Modifying
+    @Query(value = "DELETE FROM user_otps WHERE id IN " +
+            "(SELECT id FROM user_otps WHERE expiry_time < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
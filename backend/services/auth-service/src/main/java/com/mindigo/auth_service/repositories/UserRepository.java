@@ -1,11 +1,15 @@
 package com.mindigo.auth_service.repositories;
 
+import com.mindigo.auth_service.dto.UserPrincipal;
 import com.mindigo.auth_service.entity.CounselorStatus;
+import com.mindigo.auth_service.entity.ProfileImageStatus;
 import com.mindigo.auth_service.entity.Role;
 import com.mindigo.auth_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +22,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     boolean existsByEmail(String email);
 
+    // Only the columns needed for authentication, counselor status joined in the same query; served by the replica when enabled
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.mindigo.auth_service.dto.UserPrincipal(u.id, u.email, u.password, u.role, u.name, " +
+            "u.isActive, u.isEmailVerified, u.isLocked, u.lockedUntil, cd.counselorStatus) " +
+            "FROM User u LEFT JOIN u.counselorDetails cd WHERE u.email = :email")
+    Optional<UserPrincipal> findPrincipalByEmail(@Param("email") String email);
+
     // 🛑 This method is removed as licenseNumber is now in the Counselor entity
     // boolean existsByLicenseNumber(String licenseNumber);
 
@@ -30,18 +41,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     List<User> findByRole(Role role);
 
-    // ++ Add these new methods for statistics ++
-    /**
-     * Counts the total number of users with a specific role.
-     * @param role The role to count.
-     * @return The total count of users with the given role.
-     */
-    long countByRole(Role role);
-
-    /**
-     * Counts the total number of users based on their active status.
-     * @param isActive The active status to count (true for active, false for inactive).
-     * @return The total count of users with the given active status.
-     */
-    long countByIsActive(boolean isActive);
-}
\ No newline at end of file
+    // One row per (role, isActive) with its user count, for DashboardStatistics
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> countGroupedByRoleAndActive();
+
+    // Touches only the image columns, so it cannot overwrite a concurrent profile change
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profileImageUrl = :url, u.profileImageStatus = :status WHERE u.id = :id")
+    int updateProfileImage(@Param("id") Long id, @Param("url") String url, @Param("status") ProfileImageStatus status);
+}
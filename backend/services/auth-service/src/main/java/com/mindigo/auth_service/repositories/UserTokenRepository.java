@@ -3,13 +3,29 @@ package com.mindigo.auth_service.repositories;
 import com.mindigo.auth_service.entity.TokenType;
 import com.mindigo.auth_service.entity.UserToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface UserTokenRepository extends JpaRepository<UserToken, Integer> {
     UserToken findUserByToken(String token);
     void deleteByEmailAndExpiryTimeBefore(String email, LocalDateTime expiryTime);
     List<UserToken> findByTokenTypeAndExpiryTimeAfter(TokenType type, LocalDateTime time);
+
+    Optional<UserToken> findByTokenAndTokenTypeAndExpiryTimeAfter(String token, TokenType type, LocalDateTime time);
+
+    @Modifying
+    @Query("DELETE FROM UserToken t WHERE t.token = :token AND t.tokenType = :type AND t.expiryTime > :now")
+    int deleteActive(@Param("token") String token, @Param("type") TokenType type, @Param("now") LocalDateTime now);
+
+    // At most :limit rows per call so a large backlog is purged in short transactions
+    @Modifying
+    @Query(value = "DELETE FROM user_tokens WHERE id IN " +
+            "(SELECT id FROM user_tokens WHERE expiry_time < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
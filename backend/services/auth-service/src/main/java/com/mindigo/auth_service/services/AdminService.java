@@ -7,10 +7,9 @@ import com.mindigo.auth_service.dto.request.CounselorApplicationStatusUpdateRequ
 import com.mindigo.auth_service.dto.request.CounselorStatusUpdateRequest;
 import com.mindigo.auth_service.dto.response.AdminDashboardResponse;
 import com.mindigo.auth_service.dto.response.CounselorApplicationDto;
-import com.mindigo.auth_service.dto.response.UserStatsResponse;
 import com.mindigo.auth_service.entity.*;
-import com.mindigo.auth_service.repositories.AdminAuditLogRepository;
 import com.mindigo.auth_service.repositories.CounselorApplicationRepository;
+import com.mindigo.auth_service.utils.ClientIpResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -33,41 +32,36 @@ import java.util.stream.Collectors;
 public class AdminService {
 
     private final CounselorApplicationRepository applicationRepository;
-    private final AdminAuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final AuthenticationService authServiceClient;
+    private final DashboardStatistics dashboardStatistics;
+    private final ClientIpResolver clientIpResolver;
 
     public AdminDashboardResponse getDashboardStats() {
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-
-        // 1. Fetch user stats from the auth-service
-        UserStatsResponse userStats;
-        try {
-            userStats = authServiceClient.getUserStats();
-        } catch (Exception e) {
-            // If the auth-service call fails, log the error and default to zero values
-            log.error("Could not fetch user stats from auth-service. Dashboard stats will be incomplete.", e);
-            userStats = new UserStatsResponse(); // Provides 0s instead of nulls
-        }
-        System.out.println(1);
-        System.out.println(userStats);
-        System.out.println(2);
-
-        // 2. Build the complete dashboard response, combining local and remote data
-        AdminDashboardResponse adminDashboardResponse = AdminDashboardResponse.builder()
-                // Data from local admin-service repository
-                .totalApplications(applicationRepository.count())
-                .pendingApplications(applicationRepository.countByStatus(CounselorApplicationStatus.PENDING))
-                .approvedApplications(applicationRepository.countByStatus(CounselorApplicationStatus.APPROVED))
-                .rejectedApplications(applicationRepository.countByStatus(CounselorApplicationStatus.REJECTED))
-                .recentApplications(applicationRepository.countRecentApplications(sevenDaysAgo))
-                // Data from remote auth-service
-                .totalUsers(userStats.getTotalUsers())
-                .totalCounselors(userStats.getTotalCounselors())
-                .activeUsers(userStats.getTotalActiveUsers())
+        // Served from memory; no aggregate query runs per refresh
+        DashboardStatistics.Snapshot stats = dashboardStatistics.snapshot();
+        return AdminDashboardResponse.builder()
+                .totalApplications(stats.totalApplications())
+                .pendingApplications(stats.applications(CounselorApplicationStatus.PENDING))
+                .approvedApplications(stats.applications(CounselorApplicationStatus.APPROVED))
+                .rejectedApplications(stats.applications(CounselorApplicationStatus.REJECTED))
+                .recentApplications(stats.recentApplications())
+                .totalUsers(stats.totalUsers())
+                .totalCounselors(stats.totalCounselors())
+                .activeUsers(stats.activeUsers())
+                .reconciledAt(stats.reconciledAt())
                 .build();
-        System.out.println(adminDashboardResponse);
-        return adminDashboardResponse;
+    }
+
+    @Transactional
+    public String updateUserActiveStatus(Long userId, boolean active, String adminEmail, HttpServletRequest httpRequest) {
+        String result = authServiceClient.updateUserActiveStatus(userId, active);
+
+        logAdminAction(active ? AdminActionType.USER_ACCOUNT_ACTIVATED : AdminActionType.USER_ACCOUNT_SUSPENDED, adminEmail,
+                null, userId, "User " + userId + (active ? " activated" : " deactivated"), httpRequest);
+
+        return result;
     }
 
     public Page<CounselorApplicationDto> getAllApplications(Pageable pageable) {
@@ -100,7 +94,8 @@ public class AdminService {
         CounselorApplication application = applicationRepository.findById(request.getApplicationId())
                 .orElseThrow(() -> new RuntimeException("Application not found with id: " + request.getApplicationId()));
 
-        String oldStatus = application.getStatus().toString();
+        CounselorApplicationStatus previousStatus = application.getStatus();
+        String oldStatus = previousStatus.toString();
 
         switch (request.getStatus()) {
             case APPROVED:
@@ -170,6 +165,7 @@ public class AdminService {
         }
 
         applicationRepository.save(application);
+        dashboardStatistics.applicationStatusChanged(previousStatus, application.getStatus());
 
         log.info("Application {} status changed from {} to {} by admin: {}",
                 application.getId(), oldStatus, request.getStatus(), adminEmail);
@@ -189,18 +185,15 @@ public class AdminService {
                 .ipAddress(getClientIpAddress(request))
                 .userAgent(request.getHeader("User-Agent"))
                 .additionalData("{}")
+                // Set here since the batched insert bypasses @CreationTimestamp
+                .timestamp(LocalDateTime.now())
                 .build();
 
-        auditLogRepository.save(auditLog);
+        auditLogWriter.submit(auditLog);
     }
 
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null) {
-            return request.getRemoteAddr();
-        } else {
-            return xForwardedForHeader.split(",")[0];
-        }
+        return clientIpResolver.resolve(request);
     }
 
     private CounselorApplicationDto convertToDto(CounselorApplication application) {
@@ -269,6 +262,7 @@ public class AdminService {
             }
 
             application = applicationRepository.save(application);
+            dashboardStatistics.applicationCreated(application.getStatus(), application.getCreatedAt());
 
             log.info("Successfully created counselor application with ID: {} for email: {}",
                     application.getId(), request.getEmail());
@@ -289,6 +283,7 @@ public class AdminService {
         try {
             CounselorApplication application = applicationRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new RuntimeException("Counselor application not found for email: " + request.getEmail()));
+            CounselorApplicationStatus previousStatus = application.getStatus();
 
             // Update status based on request
             switch (request.getStatus()) {
@@ -308,6 +303,7 @@ public class AdminService {
             }
 
             applicationRepository.save(application);
+            dashboardStatistics.applicationStatusChanged(previousStatus, application.getStatus());
 
             log.info("Successfully updated counselor application status for email: {}", request.getEmail());
 
@@ -0,0 +1,194 @@
+package com.mindigo.auth_service.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps audit_logs and admin_audit_logs range-partitioned by month on {@code timestamp}.
+ *
+ * On startup a plain table (as created by Hibernate's ddl-auto) is converted once: it is renamed,
+ * the partitioned table is created in its place and the rows inside the retention window are copied
+ * over, all in one transaction. Afterwards every {@code maintenance-interval-ms} the partitions for
+ * the next {@code premake-months} are created and partitions that ended more than
+ * {@code retention-months} ago are dropped whole, so old events never cost a DELETE or vacuum.
+ *
+ * There is no default partition: a row outside the created months is rejected and counted as failed
+ * by {@link AuditLogWriter}, which only happens if maintenance has not run for premake-months.
+ * A transaction-scoped advisory lock keeps several instances from doing this at the same time.
+ */
+@Component
+@Slf4j
+public class AuditLogPartitionManager {
+
+    private static final long ADVISORY_LOCK_KEY = 0x4155444954L; // "AUDIT"
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String AUDIT_LOGS_DDL = "CREATE TABLE audit_logs (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY, " +
+            "event_type VARCHAR(255) NOT NULL, " +
+            "user_email VARCHAR(255) NOT NULL, " +
+            "description TEXT NOT NULL, " +
+            "ip_address VARCHAR(255) NOT NULL, " +
+            "\"timestamp\" TIMESTAMP(6) NOT NULL, " +
+            "PRIMARY KEY (\"timestamp\", id)" +
+            ") PARTITION BY RANGE (\"timestamp\")";
+
+    private static final String ADMIN_AUDIT_LOGS_DDL = "CREATE TABLE admin_audit_logs (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY, " +
+            "admin_email VARCHAR(100) NOT NULL, " +
+            "action_type VARCHAR(255) NOT NULL, " +
+            "target_email VARCHAR(100), " +
+            "target_id BIGINT, " +
+            "description TEXT NOT NULL, " +
+            "ip_address VARCHAR(45), " +
+            "user_agent VARCHAR(500), " +
+            "\"timestamp\" TIMESTAMP(6) NOT NULL, " +
+            "additional_data JSON, " +
+            "PRIMARY KEY (\"timestamp\", id)" +
+            ") PARTITION BY RANGE (\"timestamp\")";
+
+    // Indexes are created on the parent, so every partition gets them; the primary key covers (timestamp, id)
+    private static final PartitionedTable AUDIT_LOGS = new PartitionedTable("audit_logs", AUDIT_LOGS_DDL,
+            "id, event_type, user_email, description, ip_address, \"timestamp\"",
+            List.of("CREATE INDEX IF NOT EXISTS idx_audit_logs_email_time ON audit_logs (user_email, \"timestamp\", id)",
+                    "CREATE INDEX IF NOT EXISTS idx_audit_logs_event_time ON audit_logs (event_type, \"timestamp\", id)"));
+
+    private static final PartitionedTable ADMIN_AUDIT_LOGS = new PartitionedTable("admin_audit_logs", ADMIN_AUDIT_LOGS_DDL,
+            "id, admin_email, action_type, target_email, target_id, description, ip_address, user_agent, " +
+                    "\"timestamp\", additional_data",
+            List.of("CREATE INDEX IF NOT EXISTS idx_audit_admin_email ON admin_audit_logs (admin_email, \"timestamp\", id)",
+                    "CREATE INDEX IF NOT EXISTS idx_audit_target_email ON admin_audit_logs (target_email, \"timestamp\", id)",
+                    "CREATE INDEX IF NOT EXISTS idx_audit_action_type ON admin_audit_logs (action_type, \"timestamp\", id)"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.audit.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${app.audit.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    public AuditLogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.audit.partitions.maintenance-interval-ms:21600000}",
+            fixedDelayString = "${app.audit.partitions.maintenance-interval-ms:21600000}")
+    public void maintain() {
+        maintain(AUDIT_LOGS);
+        maintain(ADMIN_AUDIT_LOGS);
+    }
+
+    private void maintain(PartitionedTable table) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+                YearMonth current = YearMonth.now();
+                YearMonth oldestKept = current.minusMonths(retentionMonths);
+
+                ensurePartitioned(table, oldestKept, current);
+                for (YearMonth month = current; !month.isAfter(current.plusMonths(premakeMonths));
+                     month = month.plusMonths(1)) {
+                    createPartition(table.name(), month);
+                }
+                dropPartitionsBefore(table.name(), oldestKept);
+            });
+        } catch (Exception e) {
+            // Partitions are made months ahead, so the next run has plenty of time to retry
+            log.error("Audit partition maintenance failed for {}: {}", table.name(), e.getMessage());
+        }
+    }
+
+    private void ensurePartitioned(PartitionedTable table, YearMonth oldestKept, YearMonth current) {
+        String name = table.name();
+        String kind = jdbcTemplate.query(
+                "SELECT c.relkind FROM pg_class c WHERE c.oid = to_regclass(?)",
+                rs -> rs.next() ? rs.getString(1) : null, name);
+        if ("p".equals(kind)) {
+            return;
+        }
+        if (kind == null) {
+            jdbcTemplate.execute(table.ddl());
+            table.indexes().forEach(jdbcTemplate::execute);
+            log.info("Created partitioned table {}", name);
+            return;
+        }
+
+        // One-time conversion of the plain table; the lock keeps concurrent writers waiting until commit
+        String legacy = name + "_unpartitioned";
+        Timestamp keepFrom = Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay());
+        jdbcTemplate.execute("LOCK TABLE " + name + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + legacy);
+        jdbcTemplate.execute(table.ddl());
+
+        Timestamp[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(\"timestamp\"), MAX(\"timestamp\") FROM " + legacy + " WHERE \"timestamp\" >= ?",
+                (rs, rowNum) -> new Timestamp[]{rs.getTimestamp(1), rs.getTimestamp(2)}, keepFrom);
+        YearMonth first = range[0] != null ? YearMonth.from(range[0].toLocalDateTime()) : current;
+        YearMonth newest = range[1] != null ? YearMonth.from(range[1].toLocalDateTime()) : current;
+        YearMonth last = newest.isAfter(current) ? newest : current;
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(name, month);
+        }
+
+        // Rows older than the retention window go away with the plain table
+        int copied = jdbcTemplate.update("INSERT INTO " + name + " (" + table.columns() + ") SELECT " +
+                table.columns() + " FROM " + legacy + " WHERE \"timestamp\" >= ?", keepFrom);
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+        // The old index names are free again now that the plain table is gone
+        table.indexes().forEach(jdbcTemplate::execute);
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), " +
+                "COALESCE((SELECT MAX(id) FROM " + name + "), 0) + 1, false)", Object.class, name);
+        log.info("Converted {} to monthly partitions, copied {} rows", name, copied);
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) +
+                " PARTITION OF " + table + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void dropPartitionsBefore(String table, YearMonth oldestKept) {
+        Pattern namePattern = Pattern.compile(Pattern.quote(table) + "_p(\\d{4})_(\\d{2})");
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass(?)", String.class, table);
+        for (String partition : partitions) {
+            Matcher matcher = namePattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired audit partition {}", partition);
+            }
+        }
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    private record PartitionedTable(String name, String ddl, String columns, List<String> indexes) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.mindigo.auth_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindigo.auth_service.dto.AuditLogEntry;
+import com.mindigo.auth_service.dto.response.AuditLogPageResponse;
+import com.mindigo.auth_service.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads security events from audit_logs for admins, newest first, with keyset pagination over
+ * (timestamp, id). Each page is one range scan of the (email|event_type, timestamp, id) index or of the
+ * primary key, and a time range prunes the scan to the monthly partitions it overlaps.
+ */
+@Service
+@Slf4j
+public class AuditLogQueryService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final RowMapper<AuditLogEntry> ENTRY_MAPPER = (rs, rowNum) -> new AuditLogEntry(
+            rs.getLong("id"),
+            rs.getString("event_type"),
+            rs.getString("user_email"),
+            rs.getString("description"),
+            rs.getString("ip_address"),
+            rs.getTimestamp("timestamp").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.audit.export-batch-size:1000}")
+    private int exportBatchSize;
+
+    public AuditLogQueryService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param from   inclusive lower bound, or null
+     * @param to     exclusive upper bound, or null
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPageResponse findSecurityEvents(String email, String eventType, LocalDateTime from,
+                                                   LocalDateTime to, int size, String cursor) {
+        validateRange(from, to);
+        Filter filter = Filter.of(email, eventType, from, to);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        EventCursor after = cursor == null || cursor.isEmpty() ? null : EventCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page without a count query
+        List<AuditLogEntry> rows = fetchPage(filter, after, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = EventCursor.of(rows.get(pageSize - 1)).encode();
+        }
+
+        return AuditLogPageResponse.builder()
+                .items(new ArrayList<>(rows))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Writes every matching event as one JSON object per line. Rows are read in keyset batches of
+     * {@code export-batch-size}, each in its own short read-only transaction, so an export of any
+     * size holds neither a long transaction nor more than one batch in memory.
+     */
+    public void exportSecurityEvents(String email, String eventType, LocalDateTime from, LocalDateTime to,
+                                     OutputStream out) throws IOException {
+        validateRange(from, to);
+        Filter filter = Filter.of(email, eventType, from, to);
+        int batchSize = Math.max(1, exportBatchSize);
+        EventCursor after = null;
+        long exported = 0;
+
+        while (true) {
+            EventCursor position = after;
+            List<AuditLogEntry> batch = readOnlyTransaction.execute(status -> fetchPage(filter, position, batchSize));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (AuditLogEntry entry : batch) {
+                out.write(objectMapper.writeValueAsBytes(entry));
+                out.write(NEWLINE);
+            }
+            out.flush();
+            exported += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            after = EventCursor.of(batch.get(batch.size() - 1));
+        }
+        log.info("Exported {} audit events (email: {}, type: {}, from: {}, to: {})", exported, email, eventType, from, to);
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+    }
+
+    private List<AuditLogEntry> fetchPage(Filter filter, EventCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, event_type, user_email, description, ip_address, \"timestamp\" FROM audit_logs WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (filter.email() != null) {
+            sql.append(" AND user_email = ?");
+            args.add(filter.email());
+        }
+        if (filter.eventType() != null) {
+            sql.append(" AND event_type = ?");
+            args.add(filter.eventType());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND \"timestamp\" >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND \"timestamp\" < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (after != null) {
+            // Row comparison so Postgres can start the index scan right after the cursor
+            sql.append(" AND (\"timestamp\", id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.timestamp()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY \"timestamp\" DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ENTRY_MAPPER, args.toArray());
+    }
+
+    private record Filter(String email, String eventType, LocalDateTime from, LocalDateTime to) {
+
+        static Filter of(String email, String eventType, LocalDateTime from, LocalDateTime to) {
+            return new Filter(blankToNull(email), blankToNull(eventType), from, to);
+        }
+
+        private static String blankToNull(String value) {
+            return value != null && !value.trim().isEmpty() ? value.trim() : null;
+        }
+    }
+
+    // Opaque to clients: base64url of "<timestamp>,<id>"
+    private record EventCursor(LocalDateTime timestamp, Long id) {
+
+        static EventCursor of(AuditLogEntry entry) {
+            return new EventCursor(entry.timestamp(), entry.id());
+        }
+
+        String encode() {
+            String raw = timestamp + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static EventCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf(',');
+                return new EventCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.mindigo.auth_service.services;
 
 import com.mindigo.auth_service.entity.AuditLog;
-import com.mindigo.auth_service.repositories.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,10 +12,11 @@ import java.time.LocalDateTime;
 @Slf4j
 public class AuditLogService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
     /**
-     * Log a security event
+     * Log a security event. The record is buffered and written in batches by {@link AuditLogWriter},
+     * so this never waits on the database.
      *
      * @param eventType Type of event (e.g., "LOGIN_SUCCESS", "REGISTRATION_FAILED")
      * @param userEmail User email associated with the event
@@ -33,8 +33,8 @@ public class AuditLogService {
                     .timestamp(LocalDateTime.now())
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.info("Audit event logged - Type: {}, User: {}, IP: {}",
+            auditLogWriter.submit(auditLog);
+            log.info("Audit event queued - Type: {}, User: {}, IP: {}",
                     eventType, userEmail, ipAddress);
         } catch (Exception e) {
             log.error("Failed to log audit event: {}", e.getMessage(), e);
@@ -0,0 +1,235 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.AdminAuditLog;
+import com.mindigo.auth_service.entity.AuditLog;
+import com.mindigo.auth_service.utils.BoundedMpscRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit pipeline shared by {@link AuditLogService} and {@link AdminService}.
+ *
+ * Callers only publish the record into a bounded lock-free ring; a single background thread drains
+ * it and writes batches of up to {@code batch-size} rows per table with plain JDBC batch inserts,
+ * outside of the caller's transaction. When the ring is full the {@code overflow-policy} decides:
+ * DROP discards the record (counted), BLOCK waits up to {@code block-timeout-ms} for space.
+ * Everything still buffered is flushed on shutdown: publishers are counted while they offer, so once
+ * the writer thread has exited, {@link #stop} waits for the ones already past the running check and
+ * drains what they left in the ring itself.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (event_type, user_email, description, ip_address, timestamp) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ADMIN_AUDIT_LOG =
+            "INSERT INTO admin_audit_logs (admin_email, action_type, target_email, target_id, description, " +
+                    "ip_address, user_agent, timestamp, additional_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS json))";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedMpscRing<Object> ring;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running = true;
+    private final AtomicInteger publishing = new AtomicInteger();
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.buffer-size:16384}") int bufferSize,
+                          @Value("${app.audit.batch-size:500}") int batchSize,
+                          @Value("${app.audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                          @Value("${app.audit.block-timeout-ms:100}") long blockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ring = new BoundedMpscRing<>(bufferSize);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+
+        this.written = meterRegistry.counter("auth.audit.records", "result", "written");
+        this.dropped = meterRegistry.counter("auth.audit.records", "result", "dropped");
+        this.failed = meterRegistry.counter("auth.audit.records", "result", "failed");
+        Gauge.builder("auth.audit.buffer.size", ring, BoundedMpscRing::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::runWriter, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Flushes everything accepted so far. Spring destroys this bean before the DataSource it depends on.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Audit writer did not drain in time, {} records lost", ring.size());
+            return;
+        }
+
+        // Publishers that saw running before it flipped may still be offering; wait for them, then
+        // take over as the ring's only consumer for whatever they added after the writer's last drain
+        while (publishing.get() > 0) {
+            Thread.onSpinWait();
+        }
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (ring.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    public void submit(AuditLog auditLog) {
+        publish(auditLog);
+    }
+
+    public void submit(AdminAuditLog adminAuditLog) {
+        publish(adminAuditLog);
+    }
+
+    private void publish(Object record) {
+        // Counted before the running check, so stop() either sees this publisher or it sees stop()
+        publishing.incrementAndGet();
+        try {
+            if (!running) {
+                // Late events during shutdown are written directly rather than lost
+                writeBatch(List.of(record));
+                return;
+            }
+            offer(record);
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+
+    private void offer(Object record) {
+        if (ring.offer(record)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                if (ring.offer(record)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+        log.warn("Audit buffer full, dropping record: {}", record);
+    }
+
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            int drained = ring.drainTo(batch, batchSize);
+            if (drained > 0) {
+                writeBatch(batch);
+                batch.clear();
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void writeBatch(List<Object> records) {
+        List<Object[]> auditRows = new ArrayList<>();
+        List<Object[]> adminRows = new ArrayList<>();
+        for (Object record : records) {
+            if (record instanceof AuditLog auditLog) {
+                auditRows.add(toRow(auditLog));
+            } else if (record instanceof AdminAuditLog adminAuditLog) {
+                adminRows.add(toRow(adminAuditLog));
+            }
+        }
+        insert(INSERT_AUDIT_LOG, auditRows);
+        insert(INSERT_ADMIN_AUDIT_LOG, adminRows);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, rows);
+            written.increment(rows.size());
+        } catch (Exception batchFailure) {
+            // Retry row by row so one bad record doesn't take the whole batch with it
+            log.warn("Audit batch insert failed ({}), retrying {} rows individually", batchFailure.getMessage(), rows.size());
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(sql, row);
+                    written.increment();
+                } catch (Exception e) {
+                    failed.increment();
+                    log.error("Failed to write audit record: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Object[] toRow(AuditLog auditLog) {
+        return new Object[]{
+                auditLog.getEventType(),
+                auditLog.getUserEmail(),
+                auditLog.getDescription() != null ? auditLog.getDescription() : "",
+                auditLog.getIpAddress() != null ? auditLog.getIpAddress() : "unknown",
+                Timestamp.valueOf(auditLog.getTimestamp() != null ? auditLog.getTimestamp() : LocalDateTime.now())
+        };
+    }
+
+    private static Object[] toRow(AdminAuditLog adminAuditLog) {
+        return new Object[]{
+                adminAuditLog.getAdminEmail(),
+                adminAuditLog.getActionType().name(),
+                adminAuditLog.getTargetEmail(),
+                adminAuditLog.getTargetId(),
+                adminAuditLog.getDescription(),
+                adminAuditLog.getIpAddress(),
+                adminAuditLog.getUserAgent(),
+                Timestamp.valueOf(adminAuditLog.getTimestamp() != null ? adminAuditLog.getTimestamp() : LocalDateTime.now()),
+                adminAuditLog.getAdditionalData() != null ? adminAuditLog.getAdditionalData() : "{}"
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.mindigo.auth_service.services;
 
+import com.mindigo.auth_service.dto.UserPrincipal;
 import com.mindigo.auth_service.dto.request.*;
 import com.mindigo.auth_service.dto.response.*;
 import com.mindigo.auth_service.exception.*;
@@ -8,7 +9,6 @@ import com.mindigo.auth_service.repositories.*;
 import com.mindigo.auth_service.utils.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,15 +18,20 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -50,14 +55,17 @@ public class AuthenticationService {
     @Value("${app.password-reset.expiry-hours}")
     private int passwordResetExpiryHours;
 
+    @Value("${app.profiles.batch-max-ids:200}")
+    private int profileBatchMaxIds;
+
     private final ImageService imageStorageService;
+    private final ProfileImageUploader profileImageUploader;
     private final UserRepository userRepository;
-    private final UserOTPRepository otpRepository;
-    private final UserTokenRepository userTokenRepository;
+    private final OneTimeCodeStore oneTimeCodeStore;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final DashboardStatistics dashboardStatistics;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final CookieHelper cookieHelper;
     private final EmailService emailService;
     private final RateLimitService rateLimitService;
@@ -65,6 +73,10 @@ public class AuthenticationService {
     private final PasswordValidatorService passwordValidatorService;
     private final AdminServiceClient adminServiceClient;
     private final CounselorRepository counselorRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final CounselorSearchIndex counselorSearchIndex;
+    private final ClientIpResolver clientIpResolver;
 
     @Transactional
     public AuthenticationResponse register(MultipartFile profileImage, RegisterRequest request, HttpServletResponse response) {
@@ -100,20 +112,17 @@ public class AuthenticationService {
                     .updatedAt(LocalDateTime.now())
                     .build();
 
-            String imageUrl=null;
-
-            // Handle profile image upload asynchronously
-            if (profileImage != null && !profileImage.isEmpty()) {
-                try {
-                    imageUrl = imageStorageService.processUserProfileImageUpload(request.getEmail(), profileImage);
-                    log.info("Profile image uploaded for user: {}", request.getEmail());
-                } catch (Exception e) {
-                    log.error("Failed to upload profile image for user: {}", request.getEmail(), e);
-                }
+            // The image is uploaded after commit, so registration never waits on file-server
+            boolean hasProfileImage = profileImage != null && !profileImage.isEmpty();
+            if (hasProfileImage) {
+                user.setProfileImageStatus(ProfileImageStatus.PENDING);
             }
 
-            user.setProfileImageUrl(imageUrl);
             user = userRepository.save(user);
+            dashboardStatistics.userCreated(user.getRole(), true);
+            if (hasProfileImage) {
+                profileImageUploader.submit(user.getId(), profileImage);
+            }
 
             // Generate tokens
             String accessToken = jwtService.generateAccessToken(user);
@@ -150,8 +159,12 @@ public class AuthenticationService {
         String clientIp = getClientIpFromHttpRequest(httpRequest);
         String email = request.getEmail().toLowerCase().trim();
 
-        // Rate limiting
-//        rateLimitService.checkRateLimit("login", email, 5, 900); // 5 attempts per 15 minutes
+        // Rate limiting: per client across all accounts (the main limit), per account from this client, and
+        // failed attempts per account across all clients. The last one only counts wrong passwords and is set
+        // far higher, so nobody can lock a user out by cheaply failing logins for their email
+        rateLimitService.checkRateLimit("login_ip", clientIp, 30, 900); // 30 attempts per 15 minutes
+        rateLimitService.checkRateLimit("login", email + "|" + clientIp, 5, 900); // 5 attempts per 15 minutes
+        rateLimitService.checkRecordedAttempts("login_email_failed", email, 100, 900); // 100 failures per 15 minutes
 
         log.info("Login attempt for email: {}", email);
 
@@ -222,9 +235,13 @@ public class AuthenticationService {
                 throw new EmailNotVerifiedException("Please verify your email address before logging in");
             }
 
+            // Only failed attempts should count against the login limit
+            rateLimitService.resetRateLimit("login", email + "|" + clientIp);
+
             // Update last login
             user.setLastLoginAt(LocalDateTime.now());
             userRepository.save(user);
+            userPrincipalCache.evict(email);
 
             // Generate tokens
             String accessToken = jwtService.generateAccessToken(user);
@@ -248,6 +265,9 @@ public class AuthenticationService {
                     .build();
 
         } catch (Exception e) {
+            if (e instanceof InvalidCredentialsException) {
+                rateLimitService.recordAttempt("login_email_failed", email, 900);
+            }
             if (!(e instanceof InvalidCredentialsException ||
                     e instanceof EmailNotVerifiedException ||
                     e instanceof AccountDeactivatedException ||
@@ -269,7 +289,7 @@ public class AuthenticationService {
         }
 
         // Rate limiting
-//        rateLimitService.checkRateLimit("otp_request", email, 3, 3600); // 3 OTP requests per hour
+        rateLimitService.checkRateLimit("otp_request", email, 3, 3600); // 3 OTP requests per hour
 
         log.info("OTP request for email: {}", email);
 
@@ -281,37 +301,18 @@ public class AuthenticationService {
             throw new BadRequestException("Email is already verified");
         }
 
-        // Check if OTP was already sent recently
-        Optional<UserOTP> existingOtp = otpRepository.findByEmailAndExpiryTimeAfter(
-                email, LocalDateTime.now().minusMinutes(1));
-
-        if (existingOtp.isPresent()) {
+        // Check if an OTP is still active
+        if (oneTimeCodeStore.findOtp(email).isPresent()) {
             throw new BadRequestException("Please wait before requesting another OTP");
         }
 
-        // Clean up expired OTPs
-        otpRepository.deleteByEmailAndExpiryTimeBefore(email, LocalDateTime.now());
-
-        // Generate and save new OTP
+        // Generate and save new OTP, replacing any expired one
         String otp = OtpGenerator.generateSecureOtp();
-        UserOTP userOTP = UserOTP.builder()
-                .email(email)
-                .otp(passwordEncoder.encode(otp)) // Hash OTP for security
-                .expiryTime(LocalDateTime.now().plusMinutes(otpExpiryMinutes))
-                .attempts(0)
-                .build();
+        oneTimeCodeStore.saveOtp(email, passwordEncoder.encode(otp), // Hash OTP for security
+                Duration.ofMinutes(otpExpiryMinutes));
 
-        otpRepository.save(userOTP);
-
-        // Send OTP email asynchronously
-        CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendOtpEmail(email, user.getName(), otp);
-                log.info("OTP email sent to: {}", email);
-            } catch (Exception e) {
-                log.error("Failed to send OTP email to: {}", email, e);
-            }
-        });
+        // Queued in the outbox with the OTP row and delivered after commit
+        emailService.sendOtpEmail(email, user.getName(), otp);
 
         auditLogService.logSecurityEvent("OTP_REQUESTED", email,
                 "OTP request successful", clientIp);
@@ -338,21 +339,20 @@ public class AuthenticationService {
 
         try {
             // Find OTP record
-            UserOTP userOTP = otpRepository.findByEmailAndExpiryTimeAfter(email, LocalDateTime.now())
+            OneTimeCodeStore.OtpRecord userOTP = oneTimeCodeStore.findOtp(email)
                     .orElseThrow(() -> new InvalidOtpException("Invalid or expired OTP"));
 
             // Check attempts
-            if (userOTP.getAttempts() >= 3) {
-                otpRepository.delete(userOTP);
+            if (userOTP.attempts() >= 3) {
+                oneTimeCodeStore.removeOtp(email);
                 auditLogService.logSecurityEvent("OTP_VERIFICATION_FAILED", email,
                         "Too many failed attempts", clientIp);
                 throw new TooManyAttemptsException("Too many failed attempts. Please request a new OTP.");
             }
 
             // Verify OTP
-            if (!passwordEncoder.matches(request.getOtp(), userOTP.getOtp())) {
-                userOTP.setAttempts(userOTP.getAttempts() + 1);
-                otpRepository.save(userOTP);
+            if (!passwordEncoder.matches(request.getOtp(), userOTP.otpHash())) {
+                oneTimeCodeStore.recordFailedOtpAttempt(email);
                 auditLogService.logSecurityEvent("OTP_VERIFICATION_FAILED", email,
                         "Invalid OTP", clientIp);
                 throw new InvalidOtpException("Invalid OTP");
@@ -365,9 +365,10 @@ public class AuthenticationService {
             user.setIsEmailVerified(true);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            userPrincipalCache.evict(email);
 
             // Clean up OTP
-            otpRepository.delete(userOTP);
+            oneTimeCodeStore.removeOtp(email);
 
             // Generate new tokens
             String accessToken = jwtService.generateAccessToken(user);
@@ -405,7 +406,7 @@ public class AuthenticationService {
         String email = request.getEmail().toLowerCase().trim();
 
         // Rate limiting
-//        rateLimitService.checkRateLimit("password_reset", email, 3, 3600); // 3 requests per hour
+        rateLimitService.checkRateLimit("password_reset", email, 3, 3600); // 3 requests per hour
 
         log.info("Password reset requested for email: {}", email);
 
@@ -415,33 +416,17 @@ public class AuthenticationService {
         if (userOptional.isPresent()) {
             User user = userOptional.get();
 
-            // Clean up existing tokens
-            userTokenRepository.deleteByEmailAndExpiryTimeBefore(email, LocalDateTime.now());
-
             // Generate secure token
             String token = TokenGenerator.generateSecureToken();
 
-            // Save reset token
-            UserToken resetToken = UserToken.builder()
-                    .email(email)
-                    .token(passwordEncoder.encode(token)) // Hash token for security
-                    .tokenType(TokenType.PASSWORD_RESET)
-                    .expiryTime(LocalDateTime.now().plusHours(passwordResetExpiryHours))
-                    .build();
+            // Save reset token, keyed by its digest so it can be looked up directly
+            oneTimeCodeStore.saveResetToken(TokenDigest.sha256(token), email,
+                    Duration.ofHours(passwordResetExpiryHours));
 
-            userTokenRepository.save(resetToken);
-
-            // Send reset email asynchronously
-            CompletableFuture.runAsync(() -> {
-                try {
-                    String resetUrl = String.format("%s/auth/reset-password?token=%s",
-                            frontendDomain, token);
-                    emailService.sendPasswordResetEmail(email, user.getName(), resetUrl);
-                    log.info("Password reset email sent to: {}", email);
-                } catch (Exception e) {
-                    log.error("Failed to send password reset email to: {}", email, e);
-                }
-            });
+            // Queued in the outbox with the reset token and delivered after commit
+            String resetUrl = String.format("%s/auth/reset-password?token=%s",
+                    frontendDomain, token);
+            emailService.sendPasswordResetEmail(email, user.getName(), resetUrl);
 
             auditLogService.logSecurityEvent("PASSWORD_RESET_REQUESTED", email,
                     "Password reset email sent", getClientIpFromRequest());
@@ -459,24 +444,19 @@ public class AuthenticationService {
 
         log.info("Password reset attempt with token: {}", token.substring(0, 8) + "...");
 
-        // Find valid token
-        Optional<UserToken> tokenOptional = userTokenRepository
-                .findByTokenTypeAndExpiryTimeAfter(TokenType.PASSWORD_RESET, LocalDateTime.now())
-                .stream()
-                .filter(t -> passwordEncoder.matches(token, t.getToken()))
-                .findFirst();
+        // Validate password first so a weak password doesn't use up the token
+        passwordValidatorService.validatePassword(newPassword);
 
-        if (tokenOptional.isEmpty()) {
+        // Find and consume the token in one step
+        Optional<String> tokenEmail = oneTimeCodeStore.consumeResetToken(TokenDigest.sha256(token));
+
+        if (tokenEmail.isEmpty()) {
             auditLogService.logSecurityEvent("PASSWORD_RESET_FAILED", "UNKNOWN",
                     "Invalid or expired token", getClientIpFromRequest());
             throw new InvalidTokenException("Invalid or expired reset token");
         }
 
-        UserToken resetToken = tokenOptional.get();
-        String email = resetToken.getEmail();
-
-        // Validate password
-        passwordValidatorService.validatePassword(newPassword);
+        String email = tokenEmail.get();
 
         // Find and update user
         User user = userRepository.findByEmail(email)
@@ -485,9 +465,7 @@ public class AuthenticationService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
-
-        // Clean up reset token
-        userTokenRepository.delete(resetToken);
+        userPrincipalCache.evict(email);
 
         auditLogService.logSecurityEvent("PASSWORD_RESET_SUCCESS", email,
                 "Password reset successful", getClientIpFromRequest());
@@ -495,42 +473,36 @@ public class AuthenticationService {
         log.info("Password reset successful for email: {}", email);
 
         // Send confirmation email
-        CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendPasswordChangeConfirmationEmail(email, user.getName());
-            } catch (Exception e) {
-                log.error("Failed to send password change confirmation email", e);
-            }
-        });
+        emailService.sendPasswordChangeConfirmationEmail(email, user.getName());
 
         return "Password has been reset successfully";
     }
 
     public ValidateResponse validateToken(String token) {
         try {
-            String userEmail = jwtService.extractUsername(token);
-            String userId = jwtService.extractUserId(token);
+            // One parse verifies signature and expiry and yields every claim we need
+            JwtService.VerifiedToken verified = jwtService.verify(token);
 
-            if (userEmail == null || userId == null) {
+            if (verified.email() == null || verified.userId() == null) {
                 throw new InvalidTokenException("Invalid token format");
             }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-            if (!jwtService.isTokenValid(token, userDetails)) {
-                throw new InvalidTokenException("Token is invalid or expired");
+            // Served from memory in steady state; write paths below evict the snapshot
+            UserPrincipal user = userPrincipalCache.get(verified.email())
+                    .orElseThrow(() -> new InvalidTokenException("User not found"));
+            if (!Boolean.TRUE.equals(user.active())) {
+                throw new InvalidTokenException("Account is deactivated");
             }
-
-            Optional<User> user = userRepository.findByEmail(userEmail);
-            if (user.isEmpty()) {
-                throw new InvalidTokenException("User not found");
+            // Logged-out tokens and tokens of users revoked since the token was issued
+            if (tokenRevocationService.isRevoked(token, verified)) {
+                throw new InvalidTokenException("Token has been revoked");
             }
-            String role = String.valueOf(user.get().getRole());
-            String name = user.get().getName();
+            String role = String.valueOf(user.role());
+            String name = user.name();
 
             return ValidateResponse.builder()
-                    .userId(Long.parseLong(userId))
-                    .email(userEmail)
+                    .userId(verified.userId())
+                    .email(verified.email())
                     .valid(true)
                     .role(role)
                     .userName(name)
@@ -551,6 +523,10 @@ public class AuthenticationService {
             log.info("User logged out: {}", email);
         }
 
+        // Revoke the session's tokens so gateways verifying locally stop accepting them
+        tokenRevocationService.revokeToken(cookieHelper.getTokenFromCookie(request, "accessToken"));
+        tokenRevocationService.revokeToken(cookieHelper.getTokenFromCookie(request, "refreshToken"));
+
         // Clear cookies
         cookieHelper.clearCookie(response, "accessToken");
         cookieHelper.clearCookie(response, "refreshToken");
@@ -567,16 +543,19 @@ public class AuthenticationService {
         }
 
         try {
-            String userEmail = jwtService.extractUsername(refreshToken);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            JwtService.VerifiedToken verified = jwtService.verify(refreshToken);
 
-            if (!jwtService.isTokenValid(refreshToken, userDetails)) {
-                throw new InvalidTokenException("Invalid refresh token");
-            }
-
-            User user = userRepository.findByEmail(userEmail)
+            User user = userRepository.findByEmail(verified.email())
                     .orElseThrow(() -> new UserNotFoundException("User not found"));
 
+            // A logged-out session or a deactivated user must not be able to mint new access tokens
+            if (!Boolean.TRUE.equals(user.getIsActive())) {
+                throw new InvalidTokenException("Account is deactivated");
+            }
+            if (tokenRevocationService.isRevokedInDatabase(refreshToken, verified)) {
+                throw new InvalidTokenException("Refresh token has been revoked");
+            }
+
             // Generate new access token
             String newAccessToken = jwtService.generateAccessToken(user);
 
@@ -597,6 +576,7 @@ public class AuthenticationService {
         }
     }
 
+    @Transactional(readOnly = true)
     public UserProfileResponse getCurrentUserProfile(HttpServletRequest request) {
         String email = cookieHelper.getEmailFromCookie(request);
 
@@ -610,6 +590,7 @@ public class AuthenticationService {
         return UserProfileResponse.fromUser(user);
     }
 
+    @Transactional(readOnly = true)
     public UserProfileResponse getUserProfileById(Integer id) {
 
         if (id == null) {
@@ -623,6 +604,48 @@ public class AuthenticationService {
         return UserProfileResponse.fromUser(user.get());
     }
 
+    /**
+     * Resolves many users in one query. Unknown ids are left out of the result, so callers
+     * fall back the same way they do for a 404 from /profilebyid. Without {@code includeEmail}
+     * the email is left out even when it was requested.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, CompactProfileResponse> getProfilesByIds(ProfileBatchRequest request, boolean includeEmail) {
+        Set<Integer> ids = new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+        if (ids.size() > profileBatchMaxIds) {
+            throw new BadRequestException("At most " + profileBatchMaxIds + " user ids can be requested at once");
+        }
+
+        Set<CompactProfileResponse.Field> fields = parseProfileFields(request.getFields());
+        if (!includeEmail) {
+            fields.remove(CompactProfileResponse.Field.EMAIL);
+        }
+
+        Map<Long, CompactProfileResponse> profiles = new LinkedHashMap<>();
+        for (User user : userRepository.findAllById(ids)) {
+            profiles.put(user.getId(), CompactProfileResponse.fromUser(user, fields));
+        }
+        return profiles;
+    }
+
+    private Set<CompactProfileResponse.Field> parseProfileFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EnumSet.allOf(CompactProfileResponse.Field.class);
+        }
+
+        Set<CompactProfileResponse.Field> parsed = EnumSet.noneOf(CompactProfileResponse.Field.class);
+        for (String field : fields) {
+            try {
+                parsed.add(CompactProfileResponse.Field.valueOf(field.trim().toUpperCase()));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new BadRequestException("Unknown profile field: " + field);
+            }
+        }
+        return parsed;
+    }
+
+    @Transactional(readOnly = true)
     public CounselorProfileResponse getCounselorProfileById(Integer id) {
 
         if (id == null) {
@@ -636,11 +659,14 @@ public class AuthenticationService {
         return CounselorProfileResponse.fromUser(user.get());
     }
 
+    @Transactional(readOnly = true)
     public List<CounselorProfileResponse> getAllCounselorProfile() {
 
-        List<User> users = userRepository.findByRole(Role.COUNSELOR);
+        List<Counselor> counselors = counselorRepository.findAllWithUser();
 
-        return CounselorProfileResponse.fromUsers(users);
+        return counselors.stream()
+                .map(CounselorProfileResponse::fromCounselor)
+                .collect(Collectors.toList());
     }
 
     // Helper methods
@@ -650,17 +676,7 @@ public class AuthenticationService {
     }
 
     private String getClientIpFromHttpRequest(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
+        return clientIpResolver.resolve(request);
     }
 
     private String maskEmail(String email) {
@@ -724,15 +740,8 @@ public class AuthenticationService {
                 throw new BadRequestException("Verification document is required for counselor registration");
             }
 
-            // Handle profile image upload
-            String imageUrl = null;
-            if (profileImage != null && !profileImage.isEmpty()) {
-                try {
-                    imageUrl = imageStorageService.processUserProfileImageUpload(request.getEmail(), profileImage);
-                } catch (Exception e) {
-                    log.error("Failed to upload profile image for counselor: {}", request.getEmail(), e);
-                }
-            }
+            // The profile image is uploaded after commit, see ProfileImageUploader
+            boolean hasProfileImage = profileImage != null && !profileImage.isEmpty();
 
             // ✅ Create User and Counselor objects separately
             // 1. Create the base User
@@ -743,7 +752,7 @@ public class AuthenticationService {
                     .role(Role.COUNSELOR)
                     .dateOfBirth(request.getDateOfBirth())
                     .gender(Gender.valueOf(request.getGender().toUpperCase()))
-                    .profileImageUrl(imageUrl)
+                    .profileImageStatus(hasProfileImage ? ProfileImageStatus.PENDING : null)
                     .isEmailVerified(false)
                     .isActive(true)
                     .build();
@@ -763,6 +772,10 @@ public class AuthenticationService {
 
             // 4. Save the User (CascadeType.ALL will save the CounselorDetails too)
             user = userRepository.save(user);
+            dashboardStatistics.userCreated(Role.COUNSELOR, true);
+            if (hasProfileImage) {
+                profileImageUploader.submit(user.getId(), profileImage);
+            }
 
             // Generate tokens
             String accessToken = jwtService.generateAccessToken(user);
@@ -774,11 +787,11 @@ public class AuthenticationService {
 
             // Create counselor application in admin service asynchronously
             String finalVerificationDocumentUrl = verificationDocumentUrl;
-            String finalImageUrl = imageUrl;
             CompletableFuture.runAsync(() -> {
                 try {
+                    // No image URL yet (uploaded after commit); applications don't store it anyway
                     CounselorApplicationRequest applicationRequest = CounselorApplicationRequest
-                            .fromCounselorRegisterRequest(request, finalVerificationDocumentUrl, finalImageUrl);
+                            .fromCounselorRegisterRequest(request, finalVerificationDocumentUrl, null);
                     adminServiceClient.createCounselorApplication(applicationRequest);
                     log.info("Successfully created counselor application in admin service for: {}", request.getEmail());
                 } catch (Exception e) {
@@ -789,13 +802,7 @@ public class AuthenticationService {
             });
 
             // Send email confirmation
-            CompletableFuture.runAsync(() -> {
-                try {
-                    emailService.sendCounselorRegistrationConfirmation(request.getEmail(), request.getName());
-                } catch (Exception e) {
-                    log.error("Failed to send counselor registration confirmation email", e);
-                }
-            });
+            emailService.sendCounselorRegistrationConfirmation(request.getEmail(), request.getName());
 
             auditLogService.logSecurityEvent("COUNSELOR_REGISTERED", user.getEmail(),
                     "Counselor registration submitted", clientIp);
@@ -817,6 +824,7 @@ public class AuthenticationService {
         }
     }
 
+    @Transactional(readOnly = true)
     public CounselorStatusResponse getCounselorStatus(HttpServletRequest request) {
         String email = cookieHelper.getEmailFromCookie(request);
 
@@ -874,13 +882,7 @@ public class AuthenticationService {
                     counselorDetails.approve(1L,request.getComments());
 
                     // Send approval email
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            emailService.sendCounselorApprovalEmail(email, user.getName());
-                        } catch (Exception e) {
-                            log.error("Failed to send counselor approval email", e);
-                        }
-                    });
+                    emailService.sendCounselorApprovalEmail(email, user.getName());
                     break;
 
                 case "REJECTED":
@@ -888,15 +890,10 @@ public class AuthenticationService {
                     counselorDetails.setVerificationNotes(request.getComments());
                     counselorDetails.setAdminVerifiedAt(LocalDateTime.now());
                     counselorDetails.reject(1L,request.getComments());
+                    tokenRevocationService.revokeUser(user.getId());
 
                     // Send rejection email
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            emailService.sendCounselorRejectionEmail(email, user.getName(), request.getComments());
-                        } catch (Exception e) {
-                            log.error("Failed to send counselor rejection email", e);
-                        }
-                    });
+                    emailService.sendCounselorRejectionEmail(email, user.getName(), request.getComments());
                     break;
 
                 case "ADDITIONAL_INFO_REQUIRED":
@@ -905,19 +902,14 @@ public class AuthenticationService {
                     counselorDetails.setAdminVerifiedAt(LocalDateTime.now());
 
                     // Send additional info request email
-                    CompletableFuture.runAsync(() -> {
-                        try {
-                            emailService.sendCounselorAdditionalInfoEmail(email, user.getName(), request.getComments());
-                        } catch (Exception e) {
-                            log.error("Failed to send counselor additional info email", e);
-                        }
-                    });
+                    emailService.sendCounselorAdditionalInfoEmail(email, user.getName(), request.getComments());
                     break;
 
                 case "SUSPENDED":
                     counselorDetails.setCounselorStatus(CounselorStatus.SUSPENDED);
                     counselorDetails.setVerificationNotes(request.getComments());
                     counselorDetails.setAdminVerifiedAt(LocalDateTime.now());
+                    tokenRevocationService.revokeUser(user.getId());
                     break;
 
                 default:
@@ -926,6 +918,8 @@ public class AuthenticationService {
 
             user.setIsEmailVerified(true);
             userRepository.save(user);
+            userPrincipalCache.evict(email);
+            counselorSearchIndex.update(counselorDetails);
 //            counselorRepository.save(counselorDetails);
 
             auditLogService.logSecurityEvent("COUNSELOR_STATUS_UPDATED", email,
@@ -941,13 +935,39 @@ public class AuthenticationService {
         }
     }
 
+    @Transactional
+    public String updateUserActiveStatus(Long userId, boolean active) {
+        User user = userRepository.findById(userId.intValue())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        boolean wasActive = Boolean.TRUE.equals(user.getIsActive());
+        user.setIsActive(active);
+        userRepository.save(user);
+        userPrincipalCache.evict(user.getEmail());
+        dashboardStatistics.userActiveChanged(user.getRole(), wasActive, active);
+
+        if (!active) {
+            // Already issued tokens would otherwise stay valid until they expire
+            tokenRevocationService.revokeUser(user.getId());
+        }
+
+        auditLogService.logSecurityEvent(active ? "USER_ACTIVATED" : "USER_DEACTIVATED", user.getEmail(),
+                "Account active status set to: " + active, getClientIpFromRequest());
+
+        log.info("User {} active status set to {}", user.getEmail(), active);
+
+        return String.format("User %s successfully", active ? "activated" : "deactivated");
+    }
+
+    @Transactional(readOnly = true)
     public List<UserProfileResponse> getApprovedCounselors() {
         log.info("Fetching list of approved counselors");
 
-        List<User> counselors = userRepository.findByRoleAndCounselorStatus(Role.COUNSELOR, CounselorStatus.APPROVED);
+        // Loaded from the owning side with the user fetch-joined, so this is a single query
+        List<Counselor> counselors = counselorRepository.findAllWithUserByStatus(CounselorStatus.APPROVED);
 
         return counselors.stream()
-                .map(UserProfileResponse::fromUser)
+                .map(counselor -> UserProfileResponse.fromUser(counselor.getUser()))
                 .collect(Collectors.toList());
     }
 
@@ -958,16 +978,13 @@ public class AuthenticationService {
     public UserStatsResponse getUserStats() {
         log.info("Fetching user statistics");
 
-        // Use repository methods to get counts
-        long totalUsers = userRepository.count();
-        long totalCounselors = userRepository.countByRole(Role.COUNSELOR);
-        long totalActiveUsers = userRepository.countByIsActive(true);
-
-        // Build and return the response DTO
+        // Served from the in-memory counters, see DashboardStatistics
+        DashboardStatistics.Snapshot stats = dashboardStatistics.snapshot();
         return UserStatsResponse.builder()
-                .totalUsers(totalUsers)
-                .totalCounselors(totalCounselors)
-                .totalActiveUsers(totalActiveUsers)
+                .totalUsers(stats.totalUsers())
+                .totalCounselors(stats.totalCounselors())
+                .totalActiveUsers(stats.activeUsers())
+                .reconciledAt(stats.reconciledAt())
                 .build();
     }
 }
\ No newline at end of file
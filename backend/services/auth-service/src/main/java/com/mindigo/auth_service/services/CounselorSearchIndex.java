@@ -0,0 +1,271 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.Counselor;
+import com.mindigo.auth_service.entity.CounselorStatus;
+import com.mindigo.auth_service.repositories.CounselorRepository;
+import com.mindigo.auth_service.utils.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over approved counselors' name and specialization, replacing
+ * {@code LIKE '%term%'} scans for the counselor finder.
+ *
+ * Text is indexed pg_trgm style: every word (and the whole field) is padded with two leading spaces
+ * and one trailing space before being cut into trigrams, so one- and two-letter queries match word
+ * prefixes and longer queries match substrings. Candidates from the posting lists are verified
+ * against the text and ranked (name prefix > name word prefix > name substring > specialization),
+ * then by rating.
+ *
+ * Built at startup, updated after commit whenever a counselor's status or rating changes, and fully
+ * rebuilt every {@code rebuild-interval-ms} to pick up changes made by other instances. Updates that
+ * arrive while a rebuild is reading the database are recorded and replayed onto the new maps before
+ * they are swapped in, so the rebuild cannot undo them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CounselorSearchIndex {
+
+    private final CounselorRepository counselorRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    // Updates applied while a rebuild is running, latest per counselor (null = removed); guarded by lock
+    private Map<Long, Entry> updatesDuringRebuild;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.counselor-search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.counselor-search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Map<Long, Entry> newEntries = new HashMap<>();
+            Map<String, Set<Long>> newPostings = new HashMap<>();
+            for (Counselor counselor : counselorRepository.findAllWithUserByStatus(CounselorStatus.APPROVED)) {
+                Entry entry = Entry.of(counselor);
+                newEntries.put(entry.counselorId(), entry);
+                addPostings(newPostings, entry);
+            }
+
+            lock.writeLock().lock();
+            try {
+                // The snapshot may predate these; replaying one it already contains is harmless
+                updatesDuringRebuild.forEach((counselorId, entry) -> apply(newEntries, newPostings, counselorId, entry));
+                entries = newEntries;
+                postings = newPostings;
+            } finally {
+                updatesDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Counselor search index built with {} counselors", newEntries.size());
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // Searches fall back to the database until a rebuild succeeds
+            log.error("Failed to build counselor search index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-indexes the counselor from its current state, or drops it if it is no longer approved.
+     * Inside a transaction the change is applied after commit, so a rollback leaves the index alone.
+     */
+    public void update(Counselor counselor) {
+        Long counselorId = counselor.getId();
+        Entry entry = counselor.isApproved() ? Entry.of(counselor) : null;
+        TransactionCallbacks.afterCommit(() -> apply(counselorId, entry));
+    }
+
+    /**
+     * Returns the ids of approved counselors matching the term and filters, best match first.
+     *
+     * @param specialization exact, case-insensitive match when not blank
+     */
+    public List<Long> search(String term, Boolean acceptsInsurance, String specialization) {
+        String query = normalize(term);
+        String specializationFilter = specialization != null && !specialization.isBlank()
+                ? specialization.trim().toLowerCase(Locale.ROOT)
+                : null;
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long counselorId : candidates(query)) {
+                Entry entry = entries.get(counselorId);
+                if (entry == null
+                        || (acceptsInsurance != null && entry.acceptsInsurance() != acceptsInsurance)
+                        || (specializationFilter != null && !specializationFilter.equals(entry.specialization()))) {
+                    continue;
+                }
+                int score = entry.score(query);
+                if (score > 0) {
+                    matches.add(new Match(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::score).reversed()
+                .thenComparing(m -> m.entry().rating(), Comparator.reverseOrder())
+                .thenComparing(m -> m.entry().counselorId(), Comparator.reverseOrder()));
+        return matches.stream().map(m -> m.entry().counselorId()).toList();
+    }
+
+    // Intersection of the posting lists of the query's trigrams, smallest list first
+    private Set<Long> candidates(String query) {
+        Set<String> grams;
+        if (query.length() < 3) {
+            // Short queries can only be matched as word prefixes: "  a" or " ab"
+            grams = Set.of((query.length() == 1 ? "  " : " ") + query);
+        } else {
+            grams = new HashSet<>();
+            addTrigrams(grams, query);
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return Set.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void apply(Long counselorId, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            apply(entries, postings, counselorId, entry);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.put(counselorId, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<Long, Entry> entries, Map<String, Set<Long>> postings, Long counselorId, Entry entry) {
+        Entry previous = entries.remove(counselorId);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                Set<Long> list = postings.get(gram);
+                if (list != null && list.remove(counselorId) && list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (entry != null) {
+            entries.put(counselorId, entry);
+            addPostings(postings, entry);
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> target, Entry entry) {
+        for (String gram : entry.grams()) {
+            target.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.counselorId());
+        }
+    }
+
+    private static Set<String> indexGrams(String... fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            addTrigrams(grams, "  " + field + " ");
+            for (String word : field.split(" ")) {
+                addTrigrams(grams, "  " + word + " ");
+            }
+        }
+        return grams;
+    }
+
+    private static void addTrigrams(Set<String> grams, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private record Entry(Long counselorId, String name, String specialization, boolean acceptsInsurance,
+                         double rating, Set<String> grams) {
+
+        static Entry of(Counselor counselor) {
+            String name = normalize(counselor.getUser().getName());
+            String specialization = normalize(counselor.getSpecialization());
+            return new Entry(counselor.getId(), name, specialization,
+                    Boolean.TRUE.equals(counselor.getAcceptsInsurance()),
+                    counselor.getAverageRating() != null ? counselor.getAverageRating() : 0.0,
+                    indexGrams(name, specialization));
+        }
+
+        int score(String query) {
+            if (name.startsWith(query)) {
+                return 100;
+            }
+            if (name.contains(" " + query)) {
+                return 80;
+            }
+            if (query.length() >= 3 && name.contains(query)) {
+                return 60;
+            }
+            if (specialization.startsWith(query) || specialization.contains(" " + query)) {
+                return 40;
+            }
+            if (query.length() >= 3 && specialization.contains(query)) {
+                return 30;
+            }
+            return 0;
+        }
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+}
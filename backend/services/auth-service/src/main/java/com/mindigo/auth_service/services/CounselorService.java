@@ -1,31 +1,50 @@
 package com.mindigo.auth_service.services;
 
+import com.mindigo.auth_service.dto.CounselorDirectoryEntry;
+import com.mindigo.auth_service.dto.response.CounselorDirectoryResponse;
 import com.mindigo.auth_service.dto.response.CounselorProfileResponse;
 import com.mindigo.auth_service.entity.Counselor;
+import com.mindigo.auth_service.entity.CounselorStatus;
+import com.mindigo.auth_service.exception.BadRequestException;
 import com.mindigo.auth_service.repositories.CounselorRepository;
 import com.mindigo.auth_service.repositories.specifications.CounselorSpecification;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class CounselorService {
 
+    private static final int MAX_DIRECTORY_PAGE = 100;
+
     private final CounselorRepository counselorRepository;
     private final CounselorSpecification counselorSpecification;
+    private final CounselorSearchIndex counselorSearchIndex;
 
     @Transactional(readOnly = true)
     public Page<CounselorProfileResponse> getAllApprovedCounselors(
             int page, int size, String search, Boolean acceptsInsurance, String specialization, String[] sort) { // Add parameter
 
+        // Free-text search is answered by the in-memory index, ranked by relevance
+        if (search != null && !search.trim().isEmpty() && counselorSearchIndex.isReady()) {
+            return searchApprovedCounselors(page, size, search, acceptsInsurance, specialization);
+        }
+
         // 1. Create Sort object (logic remains the same)
         List<Sort.Order> orders = new ArrayList<>();
         // ... (sorting logic as before) ...
@@ -46,6 +65,92 @@ public class CounselorService {
         Page<Counselor> counselorPage = counselorRepository.findAll(spec, pageable);
 
         // 5. Map the results (logic remains the same)
-        return counselorPage.map(counselor -> CounselorProfileResponse.fromUser(counselor.getUser()));
+        return counselorPage.map(CounselorProfileResponse::fromCounselor);
+    }
+
+    private Page<CounselorProfileResponse> searchApprovedCounselors(
+            int page, int size, String search, Boolean acceptsInsurance, String specialization) {
+
+        List<Long> ranked = counselorSearchIndex.search(search, acceptsInsurance, specialization);
+
+        int from = Math.min(page * size, ranked.size());
+        List<Long> pageIds = ranked.subList(from, Math.min(from + size, ranked.size()));
+
+        // Hydrate just this page in one query and restore the ranked order. The status is checked again
+        // because the index may still hold a counselor suspended on another instance since its last rebuild.
+        Map<Long, Counselor> counselors = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            for (Counselor counselor : counselorRepository.findAllWithUserByIdInAndStatus(pageIds,
+                    CounselorStatus.APPROVED)) {
+                counselors.put(counselor.getId(), counselor);
+            }
+        }
+        List<CounselorProfileResponse> content = pageIds.stream()
+                .map(counselors::get)
+                .filter(Objects::nonNull)
+                .map(CounselorProfileResponse::fromCounselor)
+                .toList();
+
+        return new PageImpl<>(content, PageRequest.of(page, size), ranked.size());
+    }
+
+    /**
+     * Approved counselors ordered by rating, highest first, with keyset pagination: each page is
+     * one index range scan joined to users, however deep the client pages.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CounselorDirectoryResponse getCounselorDirectory(int size, String cursor, Boolean acceptsInsurance,
+                                                            String specialization) {
+        int pageSize = Math.max(1, Math.min(size, MAX_DIRECTORY_PAGE));
+        String normalizedSpecialization = specialization != null && !specialization.trim().isEmpty()
+                ? specialization.trim().toLowerCase()
+                : null;
+
+        // One extra row tells whether there is a next page without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<CounselorDirectoryEntry> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = counselorRepository.findDirectoryFirstPage(acceptsInsurance, normalizedSpecialization, limit);
+        } else {
+            DirectoryCursor after = DirectoryCursor.decode(cursor);
+            rows = counselorRepository.findDirectoryAfter(after.rating(), after.counselorId(),
+                    acceptsInsurance, normalizedSpecialization, limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            CounselorDirectoryEntry last = rows.get(pageSize - 1);
+            // A NULL left over from before the column was NOT NULL is backfilled to 0 by the startup rating repair
+            nextCursor = new DirectoryCursor(last.averageRating() != null ? last.averageRating() : 0.0,
+                    last.counselorId()).encode();
+        }
+
+        return CounselorDirectoryResponse.builder()
+                .items(new ArrayList<>(rows))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Opaque to clients: base64url of "<averageRating>:<counselorId>"
+    private record DirectoryCursor(Double rating, Long counselorId) {
+
+        String encode() {
+            String raw = rating + ":" + counselorId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static DirectoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new DirectoryCursor(Double.valueOf(raw.substring(0, separator)),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.CounselorApplicationStatus;
+import com.mindigo.auth_service.entity.Role;
+import com.mindigo.auth_service.repositories.CounselorApplicationRepository;
+import com.mindigo.auth_service.repositories.UserRepository;
+import com.mindigo.auth_service.utils.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory user and counselor application counters behind the admin dashboard.
+ *
+ * Write paths report their changes here and the counters move after the transaction commits, so a
+ * dashboard refresh never runs an aggregate query. Every {@code reconcile-interval-ms} the counters
+ * are replaced by one GROUP BY per table, which also picks up changes made by other instances or
+ * outside the reporting paths. A change that commits while the GROUP BY runs may be off by one
+ * until the next reconcile; {@link Snapshot#reconciledAt()} tells the reader how old the baseline is.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatistics {
+
+    private static final int RECENT_DAYS = 7;
+    private static final int INACTIVE = 0;
+    private static final int ACTIVE = 1;
+
+    private final UserRepository userRepository;
+    private final CounselorApplicationRepository applicationRepository;
+
+    // Guarded by this: per role {inactive, active} user counts
+    private final Map<Role, long[]> usersByRole = new EnumMap<>(Role.class);
+    private final Map<CounselorApplicationStatus, Long> applicationsByStatus = new EnumMap<>(CounselorApplicationStatus.class);
+    // Applications created per hour over the last RECENT_DAYS, for the sliding "recent" count
+    private final TreeMap<LocalDateTime, Long> applicationsByHour = new TreeMap<>();
+    private LocalDateTime reconciledAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.dashboard-stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.dashboard-stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> userRows = userRepository.countGroupedByRoleAndActive();
+            List<Object[]> statusRows = applicationRepository.countGroupedByStatus();
+            List<Object[]> hourRows = applicationRepository.countCreatedPerHourSince(recentWindowStart(now));
+
+            synchronized (this) {
+                usersByRole.clear();
+                for (Object[] row : userRows) {
+                    if (row[0] != null) {
+                        usersByRole.computeIfAbsent((Role) row[0], role -> new long[2])
+                                [Boolean.TRUE.equals(row[1]) ? ACTIVE : INACTIVE] += ((Number) row[2]).longValue();
+                    }
+                }
+
+                applicationsByStatus.clear();
+                for (Object[] row : statusRows) {
+                    if (row[0] != null) {
+                        applicationsByStatus.put((CounselorApplicationStatus) row[0], ((Number) row[1]).longValue());
+                    }
+                }
+
+                applicationsByHour.clear();
+                for (Object[] row : hourRows) {
+                    applicationsByHour.merge(toLocalDateTime(row[0]), ((Number) row[1]).longValue(), Long::sum);
+                }
+
+                reconciledAt = now;
+            }
+        } catch (Exception e) {
+            // Keep serving the current counters; the next run tries again
+            log.error("Failed to reconcile dashboard statistics: {}", e.getMessage());
+        }
+    }
+
+    public Snapshot snapshot() {
+        synchronized (this) {
+            if (reconciledAt != null) {
+                return buildSnapshot();
+            }
+        }
+        // First request raced the startup reconcile
+        reconcile();
+        synchronized (this) {
+            return buildSnapshot();
+        }
+    }
+
+    public void userCreated(Role role, boolean active) {
+        TransactionCallbacks.afterCommit(() -> adjustUsers(role, active, 1));
+    }
+
+    public void userActiveChanged(Role role, boolean wasActive, boolean active) {
+        if (wasActive == active) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            adjustUsers(role, wasActive, -1);
+            adjustUsers(role, active, 1);
+        });
+    }
+
+    public void applicationCreated(CounselorApplicationStatus status, LocalDateTime createdAt) {
+        LocalDateTime hour = (createdAt != null ? createdAt : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                applicationsByStatus.merge(status, 1L, Long::sum);
+                applicationsByHour.merge(hour, 1L, Long::sum);
+            }
+        });
+    }
+
+    public void applicationStatusChanged(CounselorApplicationStatus oldStatus, CounselorApplicationStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                applicationsByStatus.merge(oldStatus, -1L, Long::sum);
+                applicationsByStatus.merge(newStatus, 1L, Long::sum);
+            }
+        });
+    }
+
+    private synchronized void adjustUsers(Role role, boolean active, long delta) {
+        if (role != null) {
+            usersByRole.computeIfAbsent(role, r -> new long[2])[active ? ACTIVE : INACTIVE] += delta;
+        }
+    }
+
+    // Caller holds the lock
+    private Snapshot buildSnapshot() {
+        long totalUsers = 0;
+        long activeUsers = 0;
+        for (long[] counts : usersByRole.values()) {
+            totalUsers += counts[INACTIVE] + counts[ACTIVE];
+            activeUsers += counts[ACTIVE];
+        }
+        long[] counselors = usersByRole.getOrDefault(Role.COUNSELOR, new long[2]);
+
+        long totalApplications = 0;
+        for (long count : applicationsByStatus.values()) {
+            totalApplications += count;
+        }
+
+        applicationsByHour.headMap(recentWindowStart(LocalDateTime.now())).clear();
+        long recentApplications = 0;
+        for (long count : applicationsByHour.values()) {
+            recentApplications += count;
+        }
+
+        return new Snapshot(totalUsers, counselors[INACTIVE] + counselors[ACTIVE], activeUsers, totalApplications,
+                Collections.unmodifiableMap(new EnumMap<>(applicationsByStatus)), recentApplications, reconciledAt);
+    }
+
+    // Hour granularity: the window can reach up to an hour further back than exactly RECENT_DAYS
+    private static LocalDateTime recentWindowStart(LocalDateTime now) {
+        return now.minusDays(RECENT_DAYS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    public record Snapshot(long totalUsers, long totalCounselors, long activeUsers, long totalApplications,
+                           Map<CounselorApplicationStatus, Long> applicationsByStatus, long recentApplications,
+                           LocalDateTime reconciledAt) {
+
+        public long applications(CounselorApplicationStatus status) {
+            return applicationsByStatus.getOrDefault(status, 0L);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.TokenType;
+import com.mindigo.auth_service.entity.UserOTP;
+import com.mindigo.auth_service.entity.UserToken;
+import com.mindigo.auth_service.repositories.UserOTPRepository;
+import com.mindigo.auth_service.repositories.UserTokenRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Shares OTPs and reset tokens between instances through user_otps and user_tokens. Expired rows
+ * are removed in bulk by {@link OneTimeCodePurgeJob}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.one-time-codes.store", havingValue = "database")
+public class DatabaseOneTimeCodeStore implements OneTimeCodeStore {
+
+    private final UserOTPRepository otpRepository;
+    private final UserTokenRepository tokenRepository;
+    private final TransactionTemplate independentTransaction;
+
+    public DatabaseOneTimeCodeStore(UserOTPRepository otpRepository,
+                                    UserTokenRepository tokenRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.otpRepository = otpRepository;
+        this.tokenRepository = tokenRepository;
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void saveOtp(String email, String otpHash, Duration ttl) {
+        otpRepository.deleteAllByEmail(email);
+        otpRepository.save(UserOTP.builder()
+                .email(email)
+                .otp(otpHash)
+                .expiryTime(LocalDateTime.now().plus(ttl))
+                .attempts(0)
+                .build());
+    }
+
+    @Override
+    public Optional<OtpRecord> findOtp(String email) {
+        return otpRepository.findFirstByEmailAndExpiryTimeAfterOrderByIdDesc(email, LocalDateTime.now())
+                .map(otp -> new OtpRecord(otp.getOtp(), otp.getAttempts(),
+                        otp.getExpiryTime().atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    @Override
+    public int recordFailedOtpAttempt(String email) {
+        Integer attempts = independentTransaction.execute(status -> {
+            otpRepository.incrementAttempts(email, LocalDateTime.now());
+            return otpRepository.findFirstByEmailAndExpiryTimeAfterOrderByIdDesc(email, LocalDateTime.now())
+                    .map(UserOTP::getAttempts)
+                    .orElse(0);
+        });
+        return attempts != null ? attempts : 0;
+    }
+
+    @Override
+    public void removeOtp(String email) {
+        independentTransaction.executeWithoutResult(status -> otpRepository.deleteAllByEmail(email));
+    }
+
+    @Override
+    @Transactional
+    public void saveResetToken(String tokenDigest, String email, Duration ttl) {
+        tokenRepository.save(UserToken.builder()
+                .email(email)
+                .token(tokenDigest)
+                .tokenType(TokenType.PASSWORD_RESET)
+                .expiryTime(LocalDateTime.now().plus(ttl))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public Optional<String> consumeResetToken(String tokenDigest) {
+        LocalDateTime now = LocalDateTime.now();
+        return tokenRepository.findByTokenAndTokenTypeAndExpiryTimeAfter(tokenDigest, TokenType.PASSWORD_RESET, now)
+                // Only the caller whose delete removed the row gets the email
+                .filter(token -> tokenRepository.deleteActive(tokenDigest, TokenType.PASSWORD_RESET, now) > 0)
+                .map(UserToken::getEmail);
+    }
+}
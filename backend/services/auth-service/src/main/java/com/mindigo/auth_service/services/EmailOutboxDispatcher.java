@@ -0,0 +1,272 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.EmailOutbox;
+import com.mindigo.auth_service.entity.EmailOutboxStatus;
+import com.mindigo.auth_service.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers {@link EmailOutbox} rows over SMTP.
+ *
+ * Each poll claims a batch of due rows (lease + SKIP LOCKED, so instances never send the same row),
+ * splits it across {@code workers} threads and lets every worker send its share over a single SMTP
+ * connection. Failed messages are retried with exponential backoff and jitter until
+ * {@code max-attempts}, after which they are marked FAILED.
+ *
+ * Bodies carry one-time codes and reset links, so they are cleared as soon as a row is SENT or FAILED;
+ * the rest of the row is kept for troubleshooting (SENT rows for {@code retention-days}).
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+
+    @Value("${spring.mail.username}")
+    private String sender;
+
+    @Value("${app.email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${app.email.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.email.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email.outbox.workers:4}") int workerCount) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = Math.max(1, workerCount);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sent = meterRegistry.counter("auth.email.outbox", "result", "sent");
+        this.retried = meterRegistry.counter("auth.email.outbox", "result", "retried");
+        this.failed = meterRegistry.counter("auth.email.outbox", "result", "failed");
+    }
+
+    /**
+     * At most one PENDING row per recipient and type: {@link EmailService#sendMail} replaces it in place
+     * and its insert relies on this index to merge concurrent inserts. Hibernate cannot declare a partial
+     * index, so it is created here, after ddl-auto has created the table.
+     */
+    @PostConstruct
+    public void ensurePendingIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int removed = outboxRepository.deleteSupersededPending();
+            if (removed > 0) {
+                log.info("Removed {} superseded pending outbox emails", removed);
+            }
+            outboxRepository.createPendingUniqueIndex();
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        while (true) {
+            List<EmailOutbox> claimed = transactionTemplate.execute(status -> claimDue());
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+
+            Map<SimpleMailMessage, Exception> failures = deliver(claimed);
+            transactionTemplate.executeWithoutResult(status -> recordResults(claimed, failures));
+
+            if (claimed.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} delivered outbox emails", removed);
+        }
+    }
+
+    private List<EmailOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepository.lockDue(now, batchSize);
+        for (EmailOutbox email : due) {
+            email.setStatus(EmailOutboxStatus.SENDING);
+            email.setLockedUntil(now.plusSeconds(leaseSeconds));
+        }
+        return due;
+    }
+
+    /**
+     * Sends the batch in parallel chunks and returns the messages that failed. Each chunk goes through
+     * one {@code send(SimpleMailMessage...)} call, which opens one SMTP connection for the whole chunk.
+     */
+    private Map<SimpleMailMessage, Exception> deliver(List<EmailOutbox> claimed) {
+        List<SimpleMailMessage> messages = claimed.stream().map(this::toMessage).toList();
+        int chunkSize = (messages.size() + workerCount - 1) / workerCount;
+
+        List<Future<Map<SimpleMailMessage, Exception>>> chunks = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += chunkSize) {
+            List<SimpleMailMessage> chunk = messages.subList(from, Math.min(messages.size(), from + chunkSize));
+            chunks.add(workers.submit(() -> sendChunk(chunk)));
+        }
+
+        Map<SimpleMailMessage, Exception> failures = new HashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            try {
+                failures.putAll(chunks.get(i).get());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                int from = i * chunkSize;
+                for (SimpleMailMessage message : messages.subList(from, Math.min(messages.size(), from + chunkSize))) {
+                    failures.put(message, e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    private Map<SimpleMailMessage, Exception> sendChunk(List<SimpleMailMessage> chunk) {
+        Map<SimpleMailMessage, Exception> failures = new HashMap<>();
+        try {
+            mailSender.send(chunk.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Failed messages are keyed by the original SimpleMailMessage
+            e.getFailedMessages().forEach((message, cause) -> {
+                if (message instanceof SimpleMailMessage simpleMessage) {
+                    failures.put(simpleMessage, cause);
+                }
+            });
+            if (failures.isEmpty()) {
+                chunk.forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            // e.g. authentication failure: nothing in the chunk was sent
+            chunk.forEach(message -> failures.put(message, e));
+        }
+        return failures;
+    }
+
+    private void recordResults(List<EmailOutbox> claimed, Map<SimpleMailMessage, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>();
+        List<EmailOutbox> toRetry = new ArrayList<>();
+
+        for (EmailOutbox email : claimed) {
+            Exception error = failures.get(toMessage(email));
+            if (error == null) {
+                delivered.add(email.getId());
+                continue;
+            }
+
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLockedUntil(null);
+            email.setLastError(truncate(error.getMessage()));
+            if (attempts >= maxAttempts) {
+                email.setStatus(EmailOutboxStatus.FAILED);
+                email.setBody("");
+                failed.increment();
+                log.error("Giving up on email {} to {} after {} attempts: {}",
+                        email.getId(), email.getRecipient(), attempts, error.getMessage());
+            } else {
+                email.setStatus(EmailOutboxStatus.PENDING);
+                email.setNextAttemptAt(now.plusNanos(backoffMillis(attempts) * 1_000_000));
+                retried.increment();
+                log.warn("Email {} to {} failed (attempt {}), retrying later: {}",
+                        email.getId(), email.getRecipient(), attempts, error.getMessage());
+            }
+            toRetry.add(email);
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxRepository.markSent(delivered, now);
+            sent.increment(delivered.size());
+        }
+        if (!toRetry.isEmpty()) {
+            outboxRepository.saveAll(toRetry);
+        }
+    }
+
+    // Exponential backoff with +/-20% jitter so failed messages don't retry in lockstep
+    private long backoffMillis(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        backoff = Math.min(maxBackoffMs, backoff);
+        return (long) (backoff * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(sender);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
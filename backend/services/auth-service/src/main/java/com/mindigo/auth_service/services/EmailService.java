@@ -1,22 +1,16 @@
 package com.mindigo.auth_service.services;
 
 import com.mindigo.auth_service.dto.request.MailSendRequest;
-import com.mindigo.auth_service.dto.response.MailSendResponse;
+import com.mindigo.auth_service.entity.EmailType;
 import com.mindigo.auth_service.exception.InvalidEmailException;
-import com.mindigo.auth_service.exception.MailServerException;
+import com.mindigo.auth_service.repositories.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.mail.MailAuthenticationException;
-import org.springframework.mail.MailException;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
+
 @Service
 public class EmailService {
 
@@ -24,25 +18,22 @@ public class EmailService {
     public RestTemplate restTemplate;
 
     @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String sender;
+    private EmailOutboxRepository outboxRepository;
 
     public void sendPasswordChangeConfirmationEmail(String email, String userName) {
-        sendMail(email, "Password Change Confirmation", "Password for user "+userName+" changed successfully");
+        sendMail(EmailType.PASSWORD_CHANGED, email, "Password Change Confirmation", "Password for user "+userName+" changed successfully");
     }
 
     public void sendPasswordResetEmail(String email, String userName, String resetUrl) {
-        sendMail(email, "Password Reset Link", "Password reset link for user "+userName+": "+resetUrl);
+        sendMail(EmailType.PASSWORD_RESET, email, "Password Reset Link", "Password reset link for user "+userName+": "+resetUrl);
     }
 
     public void sendOtpEmail(String email, String userName, String otp) {
-        sendMail(email, "OTP for Signing Up", "Dear "+userName+", use this otp to complete your signup: "+otp);
+        sendMail(EmailType.OTP, email, "OTP for Signing Up", "Dear "+userName+", use this otp to complete your signup: "+otp);
     }
 
     public void sendCounselorRegistrationConfirmation(String email, String userName) {
-        sendMail(email, "Registration is pending", "Dear "+userName+", Please wait for an admin to approve you request");
+        sendMail(EmailType.COUNSELOR_REGISTRATION, email, "Registration is pending", "Dear "+userName+", Please wait for an admin to approve you request");
     }
 
     private boolean isValidEmailFormat(String email) {
@@ -65,36 +56,31 @@ public class EmailService {
         }
     }
 
-    public void sendMail(String receiver, String subject, String body) {
-        try {
-
-            MailSendRequest mailRequest = new MailSendRequest(receiver, subject, body);
-//            String mailServiceUrl = "http://MAIL-SERVICE/api/v1/mail/send-mail"; // Adjust to your mail-service URL
-//            ResponseEntity<MailSendResponse> mailResponse = restTemplate.postForEntity(mailServiceUrl, mailRequest, MailSendResponse.class);
-
-            validateRequest(mailRequest);
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(sender);
-            message.setTo(mailRequest.getReceiver());
-            message.setSubject(mailRequest.getSubject());
-            message.setText(mailRequest.getBody());
-            mailSender.send(message);
-
-        } catch (MailAuthenticationException e) {
-            throw new MailServerException("Authentication failed: Invalid mail server credentials");
-        } catch (MailSendException e) {
-            throw new MailServerException("Failed to send email: " + e.getMessage());
-        } catch (MailException e) {
-            throw new MailServerException("Mail server error: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send mail: Unexpected error occurred" + e.getMessage());
+    /**
+     * Queues the email in the outbox. Joins the caller's transaction, so the email is only sent if the
+     * change that triggered it commits; {@link EmailOutboxDispatcher} delivers it afterwards.
+     * A message of the same type still pending for the recipient is replaced instead of duplicated;
+     * one the dispatcher has already claimed is left to finish and the new message is queued after it.
+     */
+    @Transactional
+    public void sendMail(EmailType type, String receiver, String subject, String body) {
+        MailSendRequest mailRequest = new MailSendRequest(receiver, subject, body);
+//        String mailServiceUrl = "http://MAIL-SERVICE/api/v1/mail/send-mail"; // Adjust to your mail-service URL
+//        ResponseEntity<MailSendResponse> mailResponse = restTemplate.postForEntity(mailServiceUrl, mailRequest, MailSendResponse.class);
+
+        validateRequest(mailRequest);
+
+        // Conditional UPDATE rather than read-modify-save, so a row claimed in between is never put back to PENDING
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.replacePending(receiver, type, subject, body, now) == 0) {
+            outboxRepository.insertPending(receiver, type.name(), subject, body, now);
         }
     }
 
     // Add these methods to your existing EmailService class
 
     public void sendCounselorApprovalEmail(String email, String userName) {
-        sendMail(email, "Counselor Account Approved",
+        sendMail(EmailType.COUNSELOR_APPROVED, email, "Counselor Account Approved",
                 "Dear " + userName + ", your counselor account has been approved! You can now log in and start providing counseling services.");
     }
 
@@ -105,7 +91,7 @@ public class EmailService {
         }
         body += " Please contact support if you have any questions.";
 
-        sendMail(email, "Counselor Application Rejected", body);
+        sendMail(EmailType.COUNSELOR_REJECTED, email, "Counselor Application Rejected", body);
     }
 
     public void sendCounselorAdditionalInfoEmail(String email, String userName, String requiredInfo) {
@@ -115,6 +101,6 @@ public class EmailService {
         }
         body += " Please provide the requested information to complete your application.";
 
-        sendMail(email, "Additional Information Required", body);
+        sendMail(EmailType.COUNSELOR_ADDITIONAL_INFO, email, "Additional Information Required", body);
     }
 }
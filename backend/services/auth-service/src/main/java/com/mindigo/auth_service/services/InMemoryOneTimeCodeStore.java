@@ -0,0 +1,71 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.utils.HashedWheelExpiringMap;
+import com.mindigo.auth_service.utils.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keeps OTPs and reset tokens in {@link HashedWheelExpiringMap}s: no table churn, and expired codes
+ * are reclaimed by the wheel instead of lingering until the user asks again. Codes do not survive a
+ * restart and are not shared between instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.one-time-codes.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOneTimeCodeStore implements OneTimeCodeStore {
+
+    private final HashedWheelExpiringMap<String, OtpRecord> otps;
+    private final HashedWheelExpiringMap<String, String> resetTokens;
+
+    public InMemoryOneTimeCodeStore(@Value("${app.one-time-codes.tick-ms:1000}") long tickMillis,
+                                    @Value("${app.one-time-codes.wheel-size:512}") int wheelSize) {
+        this.otps = new HashedWheelExpiringMap<>("otp-store", tickMillis, wheelSize);
+        this.resetTokens = new HashedWheelExpiringMap<>("reset-token-store", tickMillis, wheelSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        otps.shutdown();
+        resetTokens.shutdown();
+    }
+
+    @Override
+    public void saveOtp(String email, String otpHash, Duration ttl) {
+        OtpRecord record = new OtpRecord(otpHash, 0, Instant.now().plus(ttl));
+        TransactionCallbacks.afterCommit(() -> otps.put(email, record, ttl));
+    }
+
+    @Override
+    public Optional<OtpRecord> findOtp(String email) {
+        return Optional.ofNullable(otps.get(email));
+    }
+
+    @Override
+    public int recordFailedOtpAttempt(String email) {
+        OtpRecord updated = otps.update(email,
+                record -> new OtpRecord(record.otpHash(), record.attempts() + 1, record.expiresAt()));
+        return updated != null ? updated.attempts() : 0;
+    }
+
+    @Override
+    public void removeOtp(String email) {
+        otps.remove(email);
+    }
+
+    @Override
+    public void saveResetToken(String tokenDigest, String email, Duration ttl) {
+        TransactionCallbacks.afterCommit(() -> resetTokens.put(tokenDigest, email, ttl));
+    }
+
+    @Override
+    public Optional<String> consumeResetToken(String tokenDigest) {
+        // Removed immediately so the same token can't be used twice concurrently
+        return Optional.ofNullable(resetTokens.remove(tokenDigest));
+    }
+}
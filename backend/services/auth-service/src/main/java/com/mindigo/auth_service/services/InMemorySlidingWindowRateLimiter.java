@@ -0,0 +1,177 @@
+package com.mindigo.auth_service.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window counter kept in process memory.
+ *
+ * Each key holds the count of the current and the previous fixed window; the effective count is the
+ * current count plus the previous one weighted by how much of it still overlaps the sliding window.
+ * That is two ints per key instead of one timestamp per attempt. Keys are locked individually, so
+ * unrelated identifiers never contend, and idle keys are swept on a schedule to bound memory.
+ *
+ * When a flood of distinct keys reaches {@code max-keys}, one thread shrinks the map to a low-water
+ * mark below it, so the full scan is paid once per {@code max-keys - low-water} new keys rather than on
+ * every insert. Idle keys go first, then the keys with the fewest recorded attempts, which are the
+ * ones furthest from being limited.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemorySlidingWindowRateLimiter implements RateLimiter {
+
+    // Attempt counts at or above this share one bucket when picking live keys to shed
+    private static final int COUNT_BUCKETS = 64;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.low-water-ratio:0.9}")
+    private double lowWaterRatio;
+
+    @Override
+    public boolean tryAcquire(String key, int maxAttempts, long windowMillis) {
+        long now = System.currentTimeMillis();
+        return window(key, windowMillis, now).tryAcquire(now, maxAttempts);
+    }
+
+    @Override
+    public boolean isLimited(String key, int maxAttempts, long windowMillis) {
+        Window window = windows.get(key);
+        return window != null && window.isLimited(System.currentTimeMillis(), maxAttempts);
+    }
+
+    @Override
+    public void record(String key, long windowMillis) {
+        long now = System.currentTimeMillis();
+        window(key, windowMillis, now).record(now);
+    }
+
+    private Window window(String key, long windowMillis, long now) {
+        Window window = windows.get(key);
+        if (window == null) {
+            // Whoever gets the lock makes room; the others insert meanwhile instead of queueing behind it
+            if (windows.size() >= maxKeys && evictionLock.tryLock()) {
+                try {
+                    if (windows.size() >= maxKeys) {
+                        evictToLowWater(now);
+                    }
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(windowMillis, now));
+        }
+        return window;
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        int before = windows.size();
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.isIdle(now));
+        int removed = before - windows.size();
+        if (removed > 0) {
+            log.debug("Evicted {} idle rate limit keys", removed);
+        }
+    }
+
+    private void evictToLowWater(long now) {
+        int lowWater = (int) (maxKeys * lowWaterRatio);
+        // A key that has not been touched for two full windows contributes nothing to any future check
+        windows.values().removeIf(window -> window.isIdle(now));
+        int excess = windows.size() - lowWater;
+        if (excess <= 0) {
+            return;
+        }
+
+        // Still over under a flood of distinct live keys: shed the least-used ones rather than grow.
+        // Counts are read without pausing writers, so the split is approximate, which is fine here
+        int[] histogram = new int[COUNT_BUCKETS];
+        for (Window window : windows.values()) {
+            histogram[bucket(window.attempts())]++;
+        }
+        int threshold = 0;
+        int below = 0;
+        while (threshold < COUNT_BUCKETS - 1 && below + histogram[threshold] < excess) {
+            below += histogram[threshold++];
+        }
+
+        int cutoff = threshold;
+        int[] quota = {excess - below};
+        windows.values().removeIf(window -> bucket(window.attempts()) < cutoff);
+        windows.values().removeIf(window -> quota[0] > 0 && bucket(window.attempts()) == cutoff && quota[0]-- > 0);
+        log.warn("Rate limit keys reached {}; shed live keys with at most {} attempts down to {}",
+                maxKeys, cutoff, windows.size());
+    }
+
+    private static int bucket(int attempts) {
+        return Math.min(attempts, COUNT_BUCKETS - 1);
+    }
+
+    private static final class Window {
+        private final long windowMillis;
+        private long windowStart;
+        private int current;
+        private int previous;
+
+        Window(long windowMillis, long now) {
+            this.windowMillis = windowMillis;
+            this.windowStart = now;
+        }
+
+        synchronized boolean tryAcquire(long now, int maxAttempts) {
+            if (isLimited(now, maxAttempts)) {
+                return false;
+            }
+            current++;
+            return true;
+        }
+
+        synchronized boolean isLimited(long now, int maxAttempts) {
+            roll(now);
+
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+            return previous * previousWeight + current >= maxAttempts;
+        }
+
+        synchronized void record(long now) {
+            roll(now);
+            current++;
+        }
+
+        synchronized int attempts() {
+            return current + previous;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - windowStart >= 2 * windowMillis;
+        }
+
+        private void roll(long now) {
+            long elapsedWindows = (now - windowStart) / windowMillis;
+            if (elapsedWindows == 0) {
+                return;
+            }
+            previous = elapsedWindows == 1 ? current : 0;
+            current = 0;
+            windowStart += elapsedWindows * windowMillis;
+        }
+    }
+}
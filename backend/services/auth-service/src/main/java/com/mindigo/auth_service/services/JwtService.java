@@ -2,17 +2,26 @@ package com.mindigo.auth_service.services;
 
 import com.mindigo.auth_service.entity.User;
 import com.mindigo.auth_service.repositories.UserRepository;
+import com.mindigo.auth_service.utils.ClockEvictingCache;
+import com.mindigo.auth_service.utils.TokenDigest;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,7 +40,75 @@ public class JwtService {
     @Value("${app.jwt.refresh-token-expiry}")
     private long refreshTokenExpiry;
 
+    @Value("${app.jwt.verified-cache-size:4096}")
+    private int verifiedCacheSize;
+
+    // Accept HS256 tokens without a kid, i.e. issued before the switch to ES256; turn off once they expired
+    @Value("${app.jwt.legacy-hs256-verification:true}")
+    private boolean legacyHs256Verification;
+
     private final UserRepository userRepository;
+    private final SigningKeyService signingKeyService;
+
+    // Key and parser are immutable and thread-safe, so they are built once instead of per token
+    private SecretKey legacyKey;
+    private JwtParser parser;
+
+    // Recently verified tokens by digest, so repeated validations of the same cookie skip the signature check
+    // and JSON parse; lock-free on hits so concurrent validations don't queue on one monitor
+    private ClockEvictingCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.legacyKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+        this.verifiedTokens = new ClockEvictingCache<>(verifiedCacheSize);
+    }
+
+    /**
+     * Verifies signature and expiry with a single parse and returns an immutable snapshot of the
+     * claims. Throws a {@link io.jsonwebtoken.JwtException} if the token is forged, malformed or expired.
+     */
+    public VerifiedToken verify(String token) {
+        String digest = TokenDigest.sha256(token);
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+        }
+
+        VerifiedToken verified = VerifiedToken.fromClaims(extractAllClaims(token));
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    // jjwt rejects a key that does not match the header's alg, so an ES256 kid can't be paired with HS256
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid != null) {
+            Key key = signingKeyService.publicKey(kid);
+            if (key == null) {
+                throw new JwtException("Unknown signing key: " + kid);
+            }
+            return key;
+        }
+        if (legacyHs256Verification && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            return legacyKey;
+        }
+        throw new JwtException("Token has no signing key id");
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -44,6 +121,8 @@ public class JwtService {
     public String generateAccessToken(User user) {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("role", user.getRole().name());
+        // Lets the gateway fill X-User-Name without calling back into auth-service
+        extraClaims.put("name", user.getName());
         return buildToken(extraClaims, user, accessTokenExpiry);
     }
 
@@ -56,33 +135,22 @@ public class JwtService {
             User user,
             long expiration
     ) {
+        SigningKeyService.ActiveKey signingKey = signingKeyService.currentSigningKey();
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(extraClaims)
                 .setId(user.getId().toString())
                 .setSubject(user.getEmail())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        VerifiedToken verified = verify(token);
+        return verified.email().equals(userDetails.getUsername()) && !verified.isExpired();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
@@ -91,11 +159,30 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
-}
\ No newline at end of file
+
+    /**
+     * Claims of a verified token. {@code userId} comes from "jti", {@code email} from "sub";
+     * refresh tokens carry no role or name.
+     */
+    public record VerifiedToken(String email, Long userId, String role, String name,
+                                Instant issuedAt, Instant expiresAt) {
+
+        static VerifiedToken fromClaims(Claims claims) {
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getId() != null ? Long.valueOf(claims.getId()) : null,
+                    claims.get("role", String.class),
+                    claims.get("name", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        }
+
+        public boolean isExpired() {
+            return expiresAt != null && !expiresAt.isAfter(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.repositories.UserOTPRepository;
+import com.mindigo.auth_service.repositories.UserTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Deletes expired rows from user_otps and user_tokens in chunks of {@code purge-batch-size}, each in
+ * its own short transaction, so the tables stay bounded without long locks. Runs in both store modes
+ * (the memory store still leaves rows written before it was enabled).
+ */
+@Component
+@Slf4j
+public class OneTimeCodePurgeJob {
+
+    private final UserOTPRepository otpRepository;
+    private final UserTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.one-time-codes.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.one-time-codes.purge-max-batches:100}")
+    private int maxBatches;
+
+    public OneTimeCodePurgeJob(UserOTPRepository otpRepository,
+                               UserTokenRepository tokenRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.otpRepository = otpRepository;
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.one-time-codes.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int otps = purge(() -> otpRepository.deleteExpiredBatch(now, batchSize));
+        int tokens = purge(() -> tokenRepository.deleteExpiredBatch(now, batchSize));
+        if (otps > 0 || tokens > 0) {
+            log.info("Purged {} expired OTPs and {} expired tokens", otps, tokens);
+        }
+    }
+
+    // Leftovers beyond maxBatches are picked up by the next run
+    private int purge(IntSupplier deleteBatch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer deleted = transactionTemplate.execute(status -> deleteBatch.getAsInt());
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mindigo.auth_service.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage for short-lived email OTPs and password reset tokens. The default is the in-process
+ * {@link InMemoryOneTimeCodeStore}; multi-instance deployments set {@code app.one-time-codes.store}
+ * to {@code database} to use {@link DatabaseOneTimeCodeStore}, which shares state through
+ * user_otps and user_tokens.
+ */
+public interface OneTimeCodeStore {
+
+    /**
+     * Stores the OTP hash for the email, replacing any previous one. Joins the caller's transaction:
+     * if it rolls back, the OTP is not stored.
+     */
+    void saveOtp(String email, String otpHash, Duration ttl);
+
+    Optional<OtpRecord> findOtp(String email);
+
+    /**
+     * Counts a failed verification and returns the new attempt count. Recorded even if the caller's
+     * transaction rolls back, otherwise throwing on a wrong OTP would undo the count.
+     */
+    int recordFailedOtpAttempt(String email);
+
+    // Takes effect immediately, also when the caller's transaction then fails
+    void removeOtp(String email);
+
+    /**
+     * Stores a password reset token under its SHA-256 digest. Reset tokens are random and long, so
+     * the digest is safe to look up by directly.
+     */
+    void saveResetToken(String tokenDigest, String email, Duration ttl);
+
+    /**
+     * Removes the token and returns the email it was issued for, if it exists and has not expired.
+     */
+    Optional<String> consumeResetToken(String tokenDigest);
+
+    record OtpRecord(String otpHash, int attempts, Instant expiresAt) {
+    }
+}
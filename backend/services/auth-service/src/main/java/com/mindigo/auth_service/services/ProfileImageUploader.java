@@ -0,0 +1,173 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.ProfileImageStatus;
+import com.mindigo.auth_service.repositories.ImageService;
+import com.mindigo.auth_service.repositories.UserRepository;
+import com.mindigo.auth_service.utils.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads profile images sent with a registration after the registration has committed.
+ *
+ * Each upload runs on its own virtual thread, at most {@code max-concurrent-uploads} at a time so
+ * a burst of sign-ups cannot flood file-server. Every waiting upload holds its image bytes, so at
+ * most {@code max-pending-uploads} are accepted at once; past that the image is marked FAILED
+ * straight away instead of being read into memory. Failures other than a rejection by file-server are
+ * retried with exponential backoff. The result is written with a targeted UPDATE of the image
+ * columns: READY with the URL, or FAILED once the attempts are used up.
+ *
+ * Uploads still queued at shutdown are lost and their users stay PENDING.
+ */
+@Component
+@Slf4j
+public class ProfileImageUploader {
+
+    private final ImageService imageService;
+    private final UserRepository userRepository;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore uploadPermits;
+    private final Semaphore pendingUploads;
+
+    @Value("${app.profile-images.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.profile-images.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    private final Counter uploaded;
+    private final Counter retried;
+    private final Counter failed;
+
+    public ProfileImageUploader(ImageService imageService,
+                                UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.profile-images.max-concurrent-uploads:16}") int maxConcurrentUploads,
+                                @Value("${app.profile-images.max-pending-uploads:256}") int maxPendingUploads) {
+        this.imageService = imageService;
+        this.userRepository = userRepository;
+        this.uploadPermits = new Semaphore(Math.max(1, maxConcurrentUploads));
+        this.pendingUploads = new Semaphore(Math.max(1, maxPendingUploads));
+
+        this.uploaded = meterRegistry.counter("auth.profile_image.uploads", "result", "uploaded");
+        this.retried = meterRegistry.counter("auth.profile_image.uploads", "result", "retried");
+        this.failed = meterRegistry.counter("auth.profile_image.uploads", "result", "failed");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Uploads the image for a user saved as {@link ProfileImageStatus#PENDING} once the current
+     * transaction commits; nothing is uploaded if it rolls back. The bytes are copied right away
+     * because the multipart temp file is deleted when the request ends.
+     */
+    public void submit(Long userId, MultipartFile file) {
+        // Taken before the bytes are read and held until the upload is done (or the transaction rolls back)
+        if (!pendingUploads.tryAcquire()) {
+            log.warn("Too many profile images waiting for upload, marking image of user {} as failed", userId);
+            TransactionCallbacks.afterCommit(() -> executor.execute(() -> markFailed(userId)));
+            return;
+        }
+
+        byte[] content;
+        try {
+            content = file.getBytes();
+        } catch (IOException e) {
+            pendingUploads.release();
+            log.error("Could not read profile image of user {}: {}", userId, e.getMessage());
+            TransactionCallbacks.afterCommit(() -> executor.execute(() -> markFailed(userId)));
+            return;
+        }
+        String filename = file.getOriginalFilename();
+        TransactionCallbacks.afterCompletion(() -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        upload(userId, filename, content);
+                    } finally {
+                        pendingUploads.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the user stays PENDING
+                pendingUploads.release();
+            }
+        }, pendingUploads::release);
+    }
+
+    private void upload(Long userId, String filename, byte[] content) {
+        String url = null;
+        try {
+            uploadPermits.acquire();
+            try {
+                url = uploadWithRetry(userId, filename, content);
+            } finally {
+                uploadPermits.release();
+            }
+        } catch (InterruptedException e) {
+            // Shutting down; the user stays PENDING
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (url == null) {
+            markFailed(userId);
+            return;
+        }
+        try {
+            userRepository.updateProfileImage(userId, url, ProfileImageStatus.READY);
+            uploaded.increment();
+        } catch (Exception e) {
+            log.error("Uploaded profile image of user {} but could not store its URL: {}", userId, e.getMessage());
+        }
+    }
+
+    private String uploadWithRetry(Long userId, String filename, byte[] content) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return imageService.uploadImage(filename, content);
+            } catch (HttpClientErrorException e) {
+                // Rejected by file-server (type, size, ...); sending it again will not help
+                log.warn("File server rejected profile image of user {}: {}", userId, e.getMessage());
+                return null;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Giving up on profile image of user {} after {} attempts: {}",
+                            userId, attempt, e.getMessage());
+                    return null;
+                }
+                retried.increment();
+                long backoff = initialBackoffMs << Math.min(attempt - 1, 10);
+                log.warn("Profile image upload for user {} failed (attempt {}), retrying in {} ms: {}",
+                        userId, attempt, backoff, e.getMessage());
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    private void markFailed(Long userId) {
+        failed.increment();
+        try {
+            userRepository.updateProfileImage(userId, null, ProfileImageStatus.FAILED);
+        } catch (Exception e) {
+            log.error("Could not mark profile image of user {} as failed: {}", userId, e.getMessage());
+        }
+    }
+}
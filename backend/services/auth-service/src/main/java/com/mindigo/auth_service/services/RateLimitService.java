@@ -3,7 +3,6 @@ package com.mindigo.auth_service.services;
 import com.mindigo.auth_service.exception.RateLimitExceededException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-//import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -11,46 +10,55 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class RateLimitService {
 
-//    private final RedisTemplate<String, Integer> redisTemplate;
-//
-//    /**
-//     * Check if rate limit is exceeded for a specific operation
-//     *
-//     * @param operation The operation name (e.g., "login", "register")
-//     * @param identifier The identifier (usually email or IP)
-//     * @param maxAttempts Maximum number of attempts allowed
-//     * @param timeWindowSeconds Time window in seconds
-//     * @throws RateLimitExceededException If rate limit is exceeded
-//     */
-//    public void checkRateLimit(String operation, String identifier, int maxAttempts, int timeWindowSeconds) {
-////        String key = String.format("rate_limit:%s:%s", operation, identifier);
-////        ValueOperations<String, Integer> ops = redisTemplate.opsForValue();
-////
-////        Integer attempts = ops.get(key);
-////        if (attempts == null) {
-////            attempts = 0;
-////        }
-////
-////        if (attempts >= maxAttempts) {
-////            log.warn("Rate limit exceeded for {} with identifier: {}", operation, identifier);
-////            throw new RateLimitExceededException(
-////                    String.format("Too many requests. Please try again later. (Limit: %d attempts per %d seconds)",
-////                            maxAttempts, timeWindowSeconds));
-////        }
-////
-////        // Increment counter and set expiration if this is the first attempt
-////        if (attempts == 0) {
-////            ops.set(key, 1, timeWindowSeconds, TimeUnit.SECONDS);
-////        } else {
-////            ops.increment(key);
-////        }
-//    }
-//
-//    /**
-//     * Reset rate limit for a specific operation and identifier
-//     */
-//    public void resetRateLimit(String operation, String identifier) {
-//        String key = String.format("rate_limit:%s:%s", operation, identifier);
-//        redisTemplate.delete(key);
-//    }
-}
\ No newline at end of file
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Check if rate limit is exceeded for a specific operation
+     *
+     * @param operation The operation name (e.g., "login", "register")
+     * @param identifier The identifier (usually email or IP)
+     * @param maxAttempts Maximum number of attempts allowed
+     * @param timeWindowSeconds Time window in seconds
+     * @throws RateLimitExceededException If rate limit is exceeded
+     */
+    public void checkRateLimit(String operation, String identifier, int maxAttempts, int timeWindowSeconds) {
+        String key = buildKey(operation, identifier);
+
+        if (!rateLimiter.tryAcquire(key, maxAttempts, timeWindowSeconds * 1000L)) {
+            log.warn("Rate limit exceeded for {} with identifier: {}", operation, identifier);
+            throw new RateLimitExceededException(
+                    String.format("Too many requests. Please try again later. (Limit: %d attempts per %d seconds)",
+                            maxAttempts, timeWindowSeconds));
+        }
+    }
+
+    /**
+     * Like {@link #checkRateLimit} but does not count this request; attempts are counted separately
+     * with {@link #recordAttempt}, e.g. only the ones that failed.
+     *
+     * @throws RateLimitExceededException If the recorded attempts already reached the limit
+     */
+    public void checkRecordedAttempts(String operation, String identifier, int maxAttempts, int timeWindowSeconds) {
+        if (rateLimiter.isLimited(buildKey(operation, identifier), maxAttempts, timeWindowSeconds * 1000L)) {
+            log.warn("Rate limit exceeded for {} with identifier: {}", operation, identifier);
+            throw new RateLimitExceededException(
+                    String.format("Too many requests. Please try again later. (Limit: %d attempts per %d seconds)",
+                            maxAttempts, timeWindowSeconds));
+        }
+    }
+
+    public void recordAttempt(String operation, String identifier, int timeWindowSeconds) {
+        rateLimiter.record(buildKey(operation, identifier), timeWindowSeconds * 1000L);
+    }
+
+    /**
+     * Reset rate limit for a specific operation and identifier
+     */
+    public void resetRateLimit(String operation, String identifier) {
+        rateLimiter.reset(buildKey(operation, identifier));
+    }
+
+    private String buildKey(String operation, String identifier) {
+        return "rate_limit:" + operation + ":" + identifier;
+    }
+}
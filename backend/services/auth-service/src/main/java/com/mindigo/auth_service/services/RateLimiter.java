@@ -0,0 +1,32 @@
+package com.mindigo.auth_service.services;
+
+/**
+ * Storage backend for {@link RateLimitService}. The default is the in-process
+ * {@link InMemorySlidingWindowRateLimiter}; a shared backend (e.g. Redis) can replace it
+ * by registering another bean of this type and setting {@code app.rate-limit.backend}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Records one attempt for the key and reports whether it is still within the limit.
+     *
+     * @param key Fully qualified key (operation + identifier)
+     * @param maxAttempts Maximum attempts allowed in the window
+     * @param windowMillis Window length in milliseconds
+     * @return true if the attempt is allowed, false if the limit is exceeded
+     */
+    boolean tryAcquire(String key, int maxAttempts, long windowMillis);
+
+    /**
+     * Reports whether the key has reached the limit, without recording an attempt. Used together with
+     * {@link #record} to limit only some outcomes, e.g. failed logins.
+     */
+    boolean isLimited(String key, int maxAttempts, long windowMillis);
+
+    /**
+     * Records one attempt for the key without checking the limit.
+     */
+    void record(String key, long windowMillis);
+
+    void reset(String key);
+}
@@ -12,15 +12,17 @@ import com.mindigo.auth_service.repositories.CounselorRepository;
 import com.mindigo.auth_service.repositories.UserRepository;
 import com.mindigo.auth_service.utils.CookieHelper;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,6 +39,7 @@ public class RatingService {
     private final CounselorRepository counselorRepository;
     private final UserRepository userRepository;
     private final CookieHelper cookieHelper;
+    private final CounselorSearchIndex counselorSearchIndex;
 
     @Transactional
     public void rateCounselor(RateCounselorRequest request, HttpServletRequest httpRequest) {
@@ -61,26 +64,28 @@ public class RatingService {
         ratingRepository.save(rating);
         log.info("User {} rated counselor {}", user.getEmail(), counselor.getUser().getEmail());
 
-        // After saving, update the counselor's average rating
-        updateCounselorAverageRating(counselor);
+        // Running sum, count, average and histogram move together in one atomic UPDATE
+        counselorRepository.addRating(counselor.getId(), request.getRating());
+
+        // addRating cleared the persistence context; reload for the search index's rating
+        counselorRepository.findAllWithUserByIdIn(List.of(counselor.getId()))
+                .forEach(counselorSearchIndex::update);
     }
 
-    private void updateCounselorAverageRating(Counselor counselor) {
-        List<CounselorRating> ratings = ratingRepository.findByCounselorId(counselor.getId());
-
-        if (ratings.isEmpty()) {
-            counselor.setAverageRating(0.0);
-            counselor.setTotalRatings(0);
-        } else {
-            double average = ratings.stream()
-                    .mapToInt(CounselorRating::getRating)
-                    .average()
-                    .orElse(0.0);
-            counselor.setAverageRating(Math.round(average * 10.0) / 10.0); // Round to one decimal place
-            counselor.setTotalRatings(ratings.size());
+    /**
+     * Recomputes all rating aggregates from counselor_ratings, fixing any drift (e.g. rows rated
+     * before the aggregates existed, NULL average ratings or ratings deleted by hand). Runs at startup
+     * and nightly.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.ratings.repair-cron:0 30 3 * * *}")
+    @Transactional
+    public void repairRatingAggregates() {
+        int repaired = counselorRepository.repairRatingAggregates();
+        if (repaired > 0) {
+            log.warn("Repaired rating aggregates of {} counselors", repaired);
+            counselorSearchIndex.rebuild();
         }
-        counselorRepository.save(counselor);
-        log.info("Updated average rating for counselor ID {} to {}", counselor.getId(), counselor.getAverageRating());
     }
 
     /**
@@ -91,6 +96,7 @@ public class RatingService {
      * @param size The number of items per page.
      * @return A Page of DTOs representing the counselor ratings.
      */
+    @Transactional(readOnly = true)
     public Page<CounselorRatingResponse> getRatingsForCounselor(Long counselorId, int page, int size) {
         if (!counselorRepository.existsById(counselorId)) {
             throw new UserNotFoundException("Counselor not found.");
@@ -0,0 +1,298 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.entity.SigningKey;
+import com.mindigo.auth_service.repositories.SigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the ES256 key pairs that sign JWTs.
+ *
+ * Keys live in signing_keys so every instance signs and verifies with the same set. A new key is
+ * created every {@code rotation-interval-hours} and published {@code publish-ahead-minutes} before
+ * it starts signing, so verifiers polling /.well-known/jwks.json learn it before they see a token
+ * carrying its kid. A replaced key stays published until every token it signed has expired.
+ *
+ * Private keys are stored AES-GCM encrypted under a key derived from app.jwt.secret-key, so a
+ * database dump alone is not enough to mint tokens.
+ */
+@Service
+@Slf4j
+public class SigningKeyService {
+
+    public static final String ALGORITHM = "ES256";
+
+    private static final String WRAP_CIPHER = "AES/GCM/NoPadding";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int COORDINATE_BYTES = 32;
+    private static final long MIN_RELOAD_INTERVAL_MS = 5000;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecretKey wrappingKey;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastReloadAt = new AtomicLong();
+
+    @Value("${app.jwt.access-token-expiry}")
+    private long accessTokenExpiry;
+
+    @Value("${app.jwt.refresh-token-expiry}")
+    private long refreshTokenExpiry;
+
+    @Value("${app.jwt.keys.rotation-interval-hours:168}")
+    private long rotationIntervalHours;
+
+    @Value("${app.jwt.keys.publish-ahead-minutes:15}")
+    private long publishAheadMinutes;
+
+    private volatile KeySet keySet = new KeySet(List.of(), Map.of(), Map.of("keys", List.of()));
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.jwt.secret-key}") String secretKey) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wrappingKey = deriveWrappingKey(secretKey);
+    }
+
+    // Fails startup when the key table is unreachable: without a key nothing can be signed
+    @PostConstruct
+    void init() {
+        rotateIfDue();
+    }
+
+    @Scheduled(initialDelayString = "${app.jwt.keys.check-interval-ms:60000}",
+            fixedDelayString = "${app.jwt.keys.check-interval-ms:60000}")
+    public void maintain() {
+        try {
+            rotateIfDue();
+            Integer purged = transactionTemplate.execute(status ->
+                    signingKeyRepository.deleteExpired(LocalDateTime.now()));
+            if (purged != null && purged > 0) {
+                log.info("Purged {} expired JWT signing keys", purged);
+            }
+        } catch (Exception e) {
+            log.error("JWT signing key maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The key new tokens are signed with: the most recently activated key whose private half could
+     * be unwrapped.
+     */
+    public ActiveKey currentSigningKey() {
+        ActiveKey current = keySet.current(LocalDateTime.now());
+        if (current == null) {
+            reload();
+            current = keySet.current(LocalDateTime.now());
+        }
+        if (current == null) {
+            throw new IllegalStateException("No active JWT signing key");
+        }
+        return current;
+    }
+
+    /**
+     * Public key for a token's kid, or null if it is unknown. A miss triggers a throttled reload so
+     * a key created by another instance is picked up without waiting for the next maintenance run.
+     */
+    public PublicKey publicKey(String kid) {
+        PublicKey key = keySet.publicKeys().get(kid);
+        if (key == null && reloadAllowed()) {
+            reload();
+            key = keySet.publicKeys().get(kid);
+        }
+        return key;
+    }
+
+    // RFC 7517 key set of every published key, including ones not signing yet
+    public Map<String, Object> jwks() {
+        return keySet.jwks();
+    }
+
+    private void rotateIfDue() {
+        reload();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ActiveKey> keys = keySet.signingKeys();
+        if (!keys.isEmpty() && keys.get(0).createdAt().isAfter(now.minusHours(rotationIntervalHours))) {
+            return;
+        }
+
+        // With nothing able to sign (first start, or the secret changed) the new key is needed right away.
+        // Two instances rotating in the same run just publish two keys; both verify and the newer one signs.
+        LocalDateTime activatesAt = keySet.current(now) == null ? now : now.plusMinutes(publishAheadMinutes);
+        SigningKey key = generate(now, activatesAt);
+        LocalDateTime retiredKeysExpireAt = activatesAt.plusSeconds(Math.max(accessTokenExpiry, refreshTokenExpiry));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            signingKeyRepository.save(key);
+            signingKeyRepository.retireOthers(key.getKid(), retiredKeysExpireAt);
+        });
+        log.info("Created JWT signing key {} active from {}", key.getKid(), activatesAt);
+
+        reload();
+    }
+
+    private boolean reloadAllowed() {
+        long now = System.currentTimeMillis();
+        long last = lastReloadAt.get();
+        return now - last >= MIN_RELOAD_INTERVAL_MS && lastReloadAt.compareAndSet(last, now);
+    }
+
+    private synchronized void reload() {
+        lastReloadAt.set(System.currentTimeMillis());
+
+        List<ActiveKey> signingKeys = new ArrayList<>();
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+
+        for (SigningKey key : signingKeyRepository.findPublished(LocalDateTime.now())) {
+            ECPublicKey publicKey;
+            try {
+                publicKey = (ECPublicKey) KeyFactory.getInstance("EC")
+                        .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.error("Skipping unreadable JWT signing key {}: {}", key.getKid(), e.getMessage());
+                continue;
+            }
+            publicKeys.put(key.getKid(), publicKey);
+            jwks.add(toJwk(key.getKid(), publicKey));
+
+            // A replaced key keeps signing until its successor activates, so every published key is unwrapped
+            try {
+                signingKeys.add(new ActiveKey(key.getKid(), unwrap(key), publicKey,
+                        key.getCreatedAt(), key.getActivatesAt()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                // Typically app.jwt.secret-key changed; the key still verifies but a new one will sign
+                log.warn("Cannot unwrap private key of JWT signing key {}: {}", key.getKid(), e.getMessage());
+            }
+        }
+
+        this.keySet = new KeySet(List.copyOf(signingKeys), Map.copyOf(publicKeys), Map.of("keys", List.copyOf(jwks)));
+    }
+
+    private SigningKey generate(LocalDateTime now, LocalDateTime activatesAt) {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String kid = UUID.randomUUID().toString();
+        return SigningKey.builder()
+                .kid(kid)
+                .algorithm(ALGORITHM)
+                .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                .privateKey(wrap(kid, pair.getPrivate().getEncoded()))
+                .createdAt(now)
+                .activatesAt(activatesAt)
+                .build();
+    }
+
+    private String wrap(String kid, byte[] pkcs8) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(WRAP_CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            // Binding the kid stops a wrapped key from being swapped onto another row
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(pkcs8);
+
+            byte[] wrapped = new byte[iv.length + ciphertext.length];
+            System.arraycopy(iv, 0, wrapped, 0, iv.length);
+            System.arraycopy(ciphertext, 0, wrapped, iv.length, ciphertext.length);
+            return Base64.getEncoder().encodeToString(wrapped);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to wrap JWT signing key", e);
+        }
+    }
+
+    private PrivateKey unwrap(SigningKey key) throws GeneralSecurityException {
+        byte[] wrapped = Base64.getDecoder().decode(key.getPrivateKey());
+        Cipher cipher = Cipher.getInstance(WRAP_CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, wrappingKey, new GCMParameterSpec(GCM_TAG_BITS, wrapped, 0, GCM_IV_BYTES));
+        cipher.updateAAD(key.getKid().getBytes(StandardCharsets.UTF_8));
+        byte[] pkcs8 = cipher.doFinal(wrapped, GCM_IV_BYTES, wrapped.length - GCM_IV_BYTES);
+        return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    private static SecretKey deriveWrappingKey(String secretKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("mindigo-jwt-signing-key-wrap".getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest.digest(Decoders.BASE64.decode(secretKey)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("kid", kid);
+        jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    // Unsigned big-endian, left-padded to the curve size as RFC 7518 requires
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] padded = new byte[COORDINATE_BYTES];
+        int length = Math.min(bytes.length, COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    public record ActiveKey(String kid, PrivateKey privateKey, PublicKey publicKey,
+                            LocalDateTime createdAt, LocalDateTime activatesAt) {
+    }
+
+    // signingKeys is ordered newest activation first, like findPublished
+    private record KeySet(List<ActiveKey> signingKeys, Map<String, PublicKey> publicKeys, Map<String, Object> jwks) {
+
+        ActiveKey current(LocalDateTime now) {
+            for (ActiveKey key : signingKeys) {
+                if (!key.activatesAt().isAfter(now)) {
+                    return key;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.dto.response.RevocationFeedResponse;
+import com.mindigo.auth_service.entity.RevocationType;
+import com.mindigo.auth_service.entity.TokenRevocation;
+import com.mindigo.auth_service.repositories.TokenRevocationRepository;
+import com.mindigo.auth_service.utils.TokenDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records logged-out tokens and deactivated users so that gateways verifying tokens locally
+ * (or from a cache) can reject them within one poll interval.
+ *
+ * Token validation checks an in-memory deny set instead of the table: revoked token digests plus a
+ * "revoked before" time per user, kept current by polling the same feed the gateways read and by
+ * applying this instance's own revocations immediately. Until the first full load the table is
+ * queried directly. Refresh goes to the table every time ({@link #isRevokedInDatabase}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final int MAX_FEED_PAGE = 1000;
+
+    @Value("${app.jwt.access-token-expiry}")
+    private long accessTokenExpiry;
+
+    @Value("${app.jwt.refresh-token-expiry}")
+    private long refreshTokenExpiry;
+
+    @Value("${app.revocation.overlap-ms:60000}")
+    private long overlapMs;
+
+    private final TokenRevocationRepository revocationRepository;
+    private final JwtService jwtService;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Revocation> revokedUsers = new ConcurrentHashMap<>();
+
+    // Newest revokedAt (epoch millis) loaded so far
+    private volatile long watermark = 0;
+    private volatile boolean ready = false;
+
+    /**
+     * Revoke a single token, e.g. on logout. Invalid or already expired tokens are ignored.
+     */
+    @Transactional
+    public void revokeToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime expiresAt;
+        try {
+            expiresAt = LocalDateTime.ofInstant(jwtService.verify(token).expiresAt(), ZoneId.systemDefault());
+        } catch (Exception e) {
+            log.debug("Skipping revocation of unparseable or expired token: {}", e.getMessage());
+            return;
+        }
+
+        apply(revocationRepository.save(TokenRevocation.builder()
+                .type(RevocationType.TOKEN)
+                .subject(TokenDigest.sha256(token))
+                .revokedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))
+                .expiresAt(expiresAt)
+                .build()));
+    }
+
+    /**
+     * Revoke every token issued to the user up to now, e.g. on deactivation or suspension.
+     * Tokens issued afterwards (after reactivation) are not affected.
+     *
+     * Commits in its own transaction, so the row becomes visible to feed subscribers right after its
+     * revokedAt rather than whenever a long caller transaction ends. If the caller then rolls back,
+     * the user merely has to sign in again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        // Millisecond precision, like the feed cursor
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        apply(revocationRepository.save(TokenRevocation.builder()
+                .type(RevocationType.USER)
+                .subject(String.valueOf(userId))
+                .revokedAt(now)
+                .expiresAt(now.plusSeconds(Math.max(accessTokenExpiry, refreshTokenExpiry)))
+                .build()));
+        log.info("Revoked all tokens of user {}", userId);
+    }
+
+    /**
+     * Whether a verified token may no longer be used: it was revoked itself (logout), or its user was
+     * revoked at or after the token's issue time. Answered from the deny set, so a revocation made on
+     * another instance is seen within one poll interval.
+     */
+    public boolean isRevoked(String token, JwtService.VerifiedToken verified) {
+        if (!ready) {
+            return isRevokedInDatabase(token, verified);
+        }
+        if (!revokedTokens.isEmpty() && revokedTokens.containsKey(TokenDigest.sha256(token))) {
+            return true;
+        }
+        Revocation revocation = verified.userId() != null ? revokedUsers.get(verified.userId()) : null;
+        if (revocation == null) {
+            return false;
+        }
+        // Tokens issued after the revocation (e.g. after reactivation) stay valid
+        return verified.issuedAt() == null || verified.issuedAt().toEpochMilli() <= revocation.revokedAt();
+    }
+
+    /**
+     * Same check as {@link #isRevoked} against the table, for paths that must not trust a deny set
+     * that may be one poll behind, such as minting a new access token from a refresh token.
+     */
+    @Transactional(readOnly = true)
+    public boolean isRevokedInDatabase(String token, JwtService.VerifiedToken verified) {
+        LocalDateTime issuedAt = verified.issuedAt() != null
+                ? LocalDateTime.ofInstant(verified.issuedAt(), ZoneId.systemDefault())
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return revocationRepository.isRevoked(TokenDigest.sha256(token), String.valueOf(verified.userId()),
+                issuedAt, LocalDateTime.now());
+    }
+
+    /**
+     * Returns active revocations after the position ({@code since} epoch millis, {@code afterId}) in
+     * (revokedAt, id) order. Subscribers start from 0 to receive the full snapshot, follow
+     * {@code hasMore} pages, and should start every later poll a safety window before the newest
+     * revokedAt they have seen: rows commit shortly after their revokedAt, not strictly in order.
+     */
+    @Transactional(readOnly = true)
+    public RevocationFeedResponse getRevocationsSince(long since, long afterId) {
+        LocalDateTime sinceTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(since), ZoneId.systemDefault());
+        List<TokenRevocation> revocations = revocationRepository.findFeedPage(
+                sinceTime, afterId, LocalDateTime.now(), PageRequest.of(0, MAX_FEED_PAGE));
+
+        List<RevocationFeedResponse.Event> events = revocations.stream()
+                .map(RevocationFeedResponse.Event::fromRevocation)
+                .toList();
+        RevocationFeedResponse.Event last = events.isEmpty() ? null : events.get(events.size() - 1);
+
+        return RevocationFeedResponse.builder()
+                .cursor(last != null ? last.getRevokedAt() : since)
+                .cursorId(last != null ? last.getId() : afterId)
+                .hasMore(events.size() == MAX_FEED_PAGE)
+                .events(events)
+                .build();
+    }
+
+    /**
+     * Loads revocations into the deny set, starting {@code overlap-ms} before the newest one seen
+     * because rows commit shortly after their revokedAt, not strictly in order. Applying one twice is
+     * harmless. On failure the current set is kept and the next run retries.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.poll-interval-ms:2000}")
+    public void refreshDenySet() {
+        try {
+            long since = Math.max(0, watermark - overlapMs);
+            long afterId = 0;
+            RevocationFeedResponse page;
+            do {
+                page = getRevocationsSince(since, afterId);
+                page.getEvents().forEach(this::apply);
+                since = page.getCursor();
+                afterId = page.getCursorId();
+            } while (page.isHasMore());
+
+            long now = System.currentTimeMillis();
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedUsers.values().removeIf(revocation -> revocation.expiresAt() <= now);
+            ready = true;
+        } catch (Exception e) {
+            log.warn("Could not refresh token revocations: {}", e.getMessage());
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        apply(RevocationFeedResponse.Event.fromRevocation(revocation));
+    }
+
+    private void apply(RevocationFeedResponse.Event event) {
+        if (event.getType() == RevocationType.TOKEN) {
+            revokedTokens.put(event.getSubject(), event.getExpiresAt());
+        } else if (event.getType() == RevocationType.USER) {
+            revokedUsers.merge(Long.valueOf(event.getSubject()),
+                    new Revocation(event.getRevokedAt(), event.getExpiresAt()),
+                    (a, b) -> a.revokedAt() >= b.revokedAt() ? a : b);
+        }
+        watermark = Math.max(watermark, event.getRevokedAt());
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = revocationRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired token revocations", removed);
+        }
+    }
+
+    private record Revocation(long revokedAt, long expiresAt) {
+    }
+}
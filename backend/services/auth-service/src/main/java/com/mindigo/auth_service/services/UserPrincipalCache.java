@@ -0,0 +1,81 @@
+package com.mindigo.auth_service.services;
+
+import com.mindigo.auth_service.config.ReadWriteRoutingDataSource;
+import com.mindigo.auth_service.dto.UserPrincipal;
+import com.mindigo.auth_service.repositories.UserRepository;
+import com.mindigo.auth_service.utils.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Email-keyed cache of {@link UserPrincipal} snapshots used by token validation and the
+ * {@code UserDetailsService}, so steady-state validation does not touch the database.
+ *
+ * Every write path that changes a cached field must call {@link #evict(String)}. Entries also expire
+ * after {@code ttl-seconds}, which bounds staleness for writes made by other instances.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${app.principal-cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Optional<UserPrincipal> get(String email) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            return Optional.of(entry.principal());
+        }
+
+        // Loaded from the primary: a lagging replica could hand back the row an evict() just dropped,
+        // and that stale snapshot would then be served for a whole ttl. Misses are rare enough to afford it.
+        Optional<UserPrincipal> loaded = ReadWriteRoutingDataSource.onPrimary(
+                () -> userRepository.findPrincipalByEmail(email));
+        loaded.ifPresent(principal -> {
+            if (entries.size() >= maxEntries) {
+                evictExpiredOrAny(now);
+            }
+            entries.put(email, new Entry(principal, now + ttlMillis));
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops the user's snapshot now and, when called inside a transaction, again after commit so a
+     * concurrent read cannot re-cache the pre-commit row.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+        TransactionCallbacks.afterCommit(() -> entries.remove(email));
+    }
+
+    private void evictExpiredOrAny(long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.mindigo.auth_service.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client address for rate limiting and audit logs.
+ *
+ * X-Forwarded-For entries on the left are whatever the client sent, so only the entries appended by
+ * our own proxies can be trusted. With {@code trusted-proxies} hops in front of this service (1: the
+ * gateway), the client is that many places from the right of X-Forwarded-For + the peer address.
+ */
+@Component
+public class ClientIpResolver {
+
+    @Value("${app.rate-limit.trusted-proxies:1}")
+    private int trustedProxies;
+
+    public String resolve(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedProxies <= 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return request.getRemoteAddr();
+        }
+
+        String[] forwarded = forwardedFor.split(",");
+        // Hops are the forwarded entries followed by the peer address itself
+        int index = forwarded.length - trustedProxies;
+        if (index < 0) {
+            // Fewer hops than configured proxies: the leftmost one is the best we have
+            index = 0;
+        }
+        String address = forwarded[index].trim();
+        return address.isEmpty() ? request.getRemoteAddr() : address;
+    }
+}
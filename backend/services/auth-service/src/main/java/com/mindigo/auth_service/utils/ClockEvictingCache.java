@@ -0,0 +1,87 @@
+package com.mindigo.auth_service.utils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded concurrent cache with CLOCK (second chance) eviction.
+ *
+ * Reads are a plain {@link ConcurrentHashMap} lookup plus setting a reference bit, so they never
+ * take a lock or reorder anything. When a put takes the cache over {@code maxSize}, one thread sweeps
+ * the entries: a referenced entry loses its bit and survives, an unreferenced one is removed, until the
+ * cache is down to its low-water mark. Other writers don't wait for the sweep, so under heavy
+ * concurrency the size can briefly exceed the bound by the number of concurrent puts.
+ */
+public class ClockEvictingCache<K, V> {
+
+    private static final double LOW_WATER_RATIO = 0.9;
+
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxSize;
+    private final int lowWater;
+
+    public ClockEvictingCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.lowWater = Math.max(1, (int) (this.maxSize * LOW_WATER_RATIO));
+    }
+
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        // Skip the write when already set, so hot entries don't bounce their cache line between cores
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Node<>(value));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Two passes always make room: the first clears every reference bit it does not evict
+            for (int pass = 0; pass < 2 && entries.size() > lowWater; pass++) {
+                Iterator<Node<V>> it = entries.values().iterator();
+                while (it.hasNext() && entries.size() > lowWater) {
+                    Node<V> node = it.next();
+                    if (node.referenced) {
+                        node.referenced = false;
+                    } else {
+                        it.remove();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private volatile boolean referenced;
+
+        Node(V value) {
+            this.value = value;
+        }
+    }
+}
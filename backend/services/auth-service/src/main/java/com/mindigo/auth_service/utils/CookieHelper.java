@@ -49,7 +49,7 @@ public class CookieHelper {
             return null;
         }
         try {
-            return jwtService.extractUsername(accessToken);
+            return jwtService.verify(accessToken).email();
         } catch (Exception e) {
             return null;
         }
@@ -0,0 +1,48 @@
+package com.mindigo.auth_service.utils;
+
+import com.mindigo.auth_service.entity.Role;
+import com.mindigo.auth_service.exception.AccessDeniedException;
+import com.mindigo.auth_service.exception.InvalidTokenException;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identity of the caller as forwarded by the gateway's JwtAuth filter in the X-User-* headers.
+ * The gateway strips these headers from incoming requests, so they are only present when it
+ * verified the caller's token.
+ */
+public final class ForwardedUser {
+
+    public static final String ID_HEADER = "X-User-Id";
+    public static final String EMAIL_HEADER = "X-User-Email";
+    public static final String ROLE_HEADER = "X-User-Role";
+
+    private ForwardedUser() {
+    }
+
+    public static Long idOrNull(HttpServletRequest request) {
+        String id = request.getHeader(ID_HEADER);
+        try {
+            return id != null && !id.isBlank() ? Long.valueOf(id) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static boolean isAdmin(HttpServletRequest request) {
+        return Role.ADMIN.name().equals(request.getHeader(ROLE_HEADER));
+    }
+
+    /**
+     * Email of the authenticated admin making the request.
+     */
+    public static String requireAdmin(HttpServletRequest request) {
+        String email = request.getHeader(EMAIL_HEADER);
+        if (email == null || email.isBlank()) {
+            throw new InvalidTokenException("Authentication required");
+        }
+        if (!isAdmin(request)) {
+            throw new AccessDeniedException("Admin role required");
+        }
+        return email;
+    }
+}
@@ -0,0 +1,128 @@
+package com.mindigo.auth_service.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrent map whose entries expire after a per-entry TTL, reclaimed by a hashed wheel timer.
+ *
+ * Scheduling an expiry is an O(1) append to the wheel bucket of its deadline; a single ticker thread
+ * visits one bucket per tick and drops entries whose deadline has passed (entries further away than
+ * one revolution are re-queued). Reads also check the deadline, so an entry is never returned after
+ * it expired, the wheel only bounds how long the memory is held.
+ */
+public class HashedWheelExpiringMap<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Timeout<K>>[] wheel;
+    private final int mask;
+    private final long tickMillis;
+    private final long startMillis = System.currentTimeMillis();
+    private final ScheduledExecutorService ticker;
+    private volatile long processedTick = -1;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelExpiringMap(String name, long tickMillis, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.wheel = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickMillis = tickMillis;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        long deadline = System.currentTimeMillis() + ttl.toMillis();
+        entries.put(key, new Entry<>(value, deadline));
+        schedule(key, deadline);
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Atomically replaces the value of a live entry, keeping its deadline. Returns the new value,
+     * or null if there was no live entry.
+     */
+    public V update(K key, UnaryOperator<V> updater) {
+        long now = System.currentTimeMillis();
+        Entry<V> updated = entries.computeIfPresent(key, (k, entry) -> entry.isExpired(now)
+                ? null
+                : new Entry<>(updater.apply(entry.value()), entry.deadline()));
+        return updated != null ? updated.value() : null;
+    }
+
+    // Removes the entry and returns its value if it was still live
+    public V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null && !entry.isExpired(System.currentTimeMillis()) ? entry.value() : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void schedule(K key, long deadline) {
+        long tick = Math.max((deadline - startMillis + tickMillis - 1) / tickMillis, processedTick + 1);
+        wheel[(int) (tick & mask)].add(new Timeout<>(key, deadline));
+    }
+
+    // Runs on the ticker thread only; catches up on ticks missed while the thread was delayed
+    private void advance() {
+        long now = System.currentTimeMillis();
+        long currentTick = (now - startMillis) / tickMillis;
+        long from = Math.max(processedTick + 1, currentTick - mask);
+
+        for (long tick = from; tick <= currentTick; tick++) {
+            ConcurrentLinkedQueue<Timeout<K>> bucket = wheel[(int) (tick & mask)];
+            List<Timeout<K>> notYetDue = new ArrayList<>();
+            Timeout<K> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.deadline() > now) {
+                    notYetDue.add(timeout);
+                    continue;
+                }
+                // Only drop the entry if it wasn't replaced by one with a later deadline
+                entries.computeIfPresent(timeout.key(), (k, entry) -> entry.isExpired(now) ? null : entry);
+            }
+            bucket.addAll(notYetDue);
+        }
+        processedTick = currentTick;
+    }
+
+    private record Entry<V>(V value, long deadline) {
+        boolean isExpired(long now) {
+            return deadline <= now;
+        }
+    }
+
+    private record Timeout<K>(K key, long deadline) {
+    }
+}
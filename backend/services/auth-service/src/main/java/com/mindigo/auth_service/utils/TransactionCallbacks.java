@@ -0,0 +1,37 @@
+package com.mindigo.auth_service.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (caches, counters, background work) until the surrounding
+ * transaction has committed, so a rollback leaves them untouched. Outside a transaction the action
+ * runs immediately.
+ */
+public class TransactionCallbacks {
+
+    public static void afterCommit(Runnable action) {
+        afterCompletion(action, () -> { });
+    }
+
+    /**
+     * Runs {@code onCommit} after the transaction commits, or {@code onRollback} if it does not,
+     * e.g. to release a resource taken for work that will now never happen.
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.mindigo.auth_service.benchmark;
+
+import com.mindigo.auth_service.entity.Role;
+import com.mindigo.auth_service.entity.User;
+import com.mindigo.auth_service.repositories.UserRepository;
+import com.mindigo.auth_service.services.JwtService;
+import com.mindigo.auth_service.services.SigningKeyService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of {@link JwtService#verify} for a token seen before (digest cache hit) and for tokens that
+ * always miss the cache (signature check + claims parse), next to issuing an access token.
+ *
+ * {@link #legacyValidate} is the baseline: the validation path before {@code verify} existed, where
+ * {@code extractUsername}, {@code extractUserId} and {@code isTokenValid} each decoded the HS256 key,
+ * built a parser and parsed the token again. {@link #verifyLegacyHs256} runs the new path over the
+ * same HS256 tokens, so the two differ only in the path and not in the signature algorithm.
+ *
+ * Run {@link #main} from the IDE after {@code mvn test-compile}; it is not part of the unit test run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String KID = "bench";
+    private static final int CACHE_SIZE = 64;
+    // Far more distinct tokens than cache entries, so verifyUncached never hits the cache
+    private static final int TOKEN_POOL = 4096;
+
+    private JwtService jwtService;
+    private User user;
+    private String cachedToken;
+    private String[] tokenPool;
+    private String secretKey;
+    private String[] hs256TokenPool;
+
+    @Setup
+    public void setUp() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        SigningKeyService signingKeyService = Mockito.mock(SigningKeyService.class);
+        Mockito.when(signingKeyService.currentSigningKey()).thenReturn(new SigningKeyService.ActiveKey(
+                KID, keyPair.getPrivate(), keyPair.getPublic(), LocalDateTime.now(), LocalDateTime.now()));
+        Mockito.when(signingKeyService.publicKey(KID)).thenReturn(keyPair.getPublic());
+
+        jwtService = new JwtService(Mockito.mock(UserRepository.class), signingKeyService);
+        secretKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiry", 3600L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiry", 86400L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", CACHE_SIZE);
+        ReflectionTestUtils.setField(jwtService, "legacyHs256Verification", true);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        user = User.builder()
+                .id(1L)
+                .name("Bench User")
+                .email("bench@example.com")
+                .role(Role.USER)
+                .build();
+        cachedToken = jwtService.generateAccessToken(user);
+
+        tokenPool = new String[TOKEN_POOL];
+        for (int i = 0; i < TOKEN_POOL; i++) {
+            tokenPool[i] = jwtService.generateAccessToken(User.builder()
+                    .id((long) i)
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .role(Role.USER)
+                    .build());
+        }
+
+        hs256TokenPool = new String[TOKEN_POOL];
+        for (int i = 0; i < TOKEN_POOL; i++) {
+            hs256TokenPool[i] = Jwts.builder()
+                    .setClaims(Map.of("role", Role.USER.name(), "name", "User " + i))
+                    .setId(String.valueOf(i))
+                    .setSubject("user" + i + "@example.com")
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(legacySignInKey(), SignatureAlgorithm.HS256)
+                    .compact();
+        }
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyCached() {
+        return jwtService.verify(cachedToken);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyUncached() {
+        return jwtService.verify(tokenPool[ThreadLocalRandom.current().nextInt(TOKEN_POOL)]);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        String token = hs256TokenPool[ThreadLocalRandom.current().nextInt(TOKEN_POOL)];
+        String email = legacyExtractClaim(token, Claims::getSubject);
+        String userId = legacyExtractClaim(token, Claims::getId);
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername(email).password("").authorities("USER").build();
+        return userId != null && legacyIsTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyLegacyHs256() {
+        return jwtService.verify(hs256TokenPool[ThreadLocalRandom.current().nextInt(TOKEN_POOL)]);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    // Copied from JwtService as it was before verify(): a fresh key and parser for every claim read
+    private boolean legacyIsTokenValid(String token, UserDetails userDetails) {
+        String username = legacyExtractClaim(token, Claims::getSubject);
+        return username.equals(userDetails.getUsername())
+                && !legacyExtractClaim(token, Claims::getExpiration).before(new Date());
+    }
+
+    private <T> T legacyExtractClaim(String token, Function<Claims, T> claimResolver) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(legacySignInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claimResolver.apply(claims);
+    }
+
+    private SecretKey legacySignInKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
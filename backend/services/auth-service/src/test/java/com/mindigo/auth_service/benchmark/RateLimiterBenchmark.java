@@ -0,0 +1,76 @@
+package com.mindigo.auth_service.benchmark;
+
+import com.mindigo.auth_service.services.InMemorySlidingWindowRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of {@link InMemorySlidingWindowRateLimiter} for repeat callers and for a flood of
+ * distinct keys that keeps the table at {@code max-keys}.
+ *
+ * Run {@link #main} from the IDE after {@code mvn test-compile}; it is not part of the unit test run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final long WINDOW_MILLIS = 900_000;
+
+    @Param({"100000"})
+    int maxKeys;
+
+    private InMemorySlidingWindowRateLimiter limiter;
+    private final AtomicLong distinctKeys = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        limiter = new InMemorySlidingWindowRateLimiter();
+        ReflectionTestUtils.setField(limiter, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(limiter, "lowWaterRatio", 0.9);
+        // Start full so the flood benchmark measures steady-state eviction
+        for (int i = 0; i < maxKeys; i++) {
+            limiter.tryAcquire("rate_limit:login:warm-" + i, 5, WINDOW_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public boolean knownKeys() {
+        int id = ThreadLocalRandom.current().nextInt(maxKeys);
+        return limiter.tryAcquire("rate_limit:login:warm-" + id, Integer.MAX_VALUE, WINDOW_MILLIS);
+    }
+
+    @Benchmark
+    public boolean distinctKeyFlood() {
+        return limiter.tryAcquire("rate_limit:login:flood-" + distinctKeys.incrementAndGet(), 5, WINDOW_MILLIS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
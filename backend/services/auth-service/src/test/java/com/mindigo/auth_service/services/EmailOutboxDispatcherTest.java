@@ -0,0 +1,268 @@
+package com.mindigo.auth_service.services;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.mindigo.auth_service.entity.EmailOutbox;
+import com.mindigo.auth_service.entity.EmailOutboxStatus;
+import com.mindigo.auth_service.entity.EmailType;
+import com.mindigo.auth_service.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the outbox against a GreenMail SMTP server, with the repository replaced by an in-memory table
+ * that follows the same claim/markSent semantics as the SQL.
+ */
+class EmailOutboxDispatcherTest {
+
+    private static final long INITIAL_BACKOFF_MS = 60_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final List<EmailOutbox> table = new ArrayList<>();
+    private EmailOutboxRepository repository;
+    private JavaMailSenderImpl mailSender;
+    private EmailService emailService;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        repository = inMemoryRepository();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "outboxRepository", repository);
+
+        dispatcher = new EmailOutboxDispatcher(repository, mailSender, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 2);
+        ReflectionTestUtils.setField(dispatcher, "sender", "noreply@mindigo.test");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 3);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", INITIAL_BACKOFF_MS);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 600_000L);
+        ReflectionTestUtils.setField(dispatcher, "retentionDays", 7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void deliversEveryDueEmailInBatches() {
+        for (int i = 0; i < 7; i++) {
+            emailService.sendMail(EmailType.OTP, "user" + i + "@mindigo.test", "OTP", "code " + i);
+        }
+
+        dispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+        // 3 + 3 + 1: keeps claiming while batches come back full
+        verify(repository, times(3)).lockDue(any(), eq(3));
+        assertThat(table).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getBody()).isEmpty();
+        });
+    }
+
+    @Test
+    void retriesFailedDeliveryWithGrowingBackoff() throws Exception {
+        emailService.sendMail(EmailType.PASSWORD_RESET, "user@mindigo.test", "Reset", "reset link");
+        EmailOutbox email = table.get(0);
+        mailSender.setPort(closedPort());
+
+        LocalDateTime firstAttempt = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotBlank();
+        assertThat(email.getLockedUntil()).isNull();
+        assertBackoff(firstAttempt, email.getNextAttemptAt(), INITIAL_BACKOFF_MS);
+
+        // Not due yet: nothing is claimed
+        dispatcher.dispatch();
+        assertThat(email.getAttempts()).isEqualTo(1);
+
+        makeDue(email);
+        LocalDateTime secondAttempt = LocalDateTime.now();
+        dispatcher.dispatch();
+        assertThat(email.getAttempts()).isEqualTo(2);
+        assertBackoff(secondAttempt, email.getNextAttemptAt(), 2 * INITIAL_BACKOFF_MS);
+
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        makeDue(email);
+        dispatcher.dispatch();
+
+        assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(GreenMailUtil.getBody(received[0])).contains("reset link");
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndClearsTheBody() throws Exception {
+        emailService.sendMail(EmailType.OTP, "user@mindigo.test", "OTP", "code 123456");
+        EmailOutbox email = table.get(0);
+        mailSender.setPort(closedPort());
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            makeDue(email);
+            dispatcher.dispatch();
+        }
+
+        assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(email.getAttempts()).isEqualTo(3);
+        assertThat(email.getBody()).isEmpty();
+
+        // FAILED rows are never claimed again
+        makeDue(email);
+        dispatcher.dispatch();
+        assertThat(email.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void queuesNewEmailWhenPendingOneWasAlreadyClaimed() {
+        emailService.sendMail(EmailType.OTP, "a@mindigo.test", "OTP", "first code");
+        // The dispatcher claimed the row before the second code was requested
+        table.get(0).setStatus(EmailOutboxStatus.SENDING);
+
+        emailService.sendMail(EmailType.OTP, "a@mindigo.test", "OTP", "second code");
+
+        assertThat(table).hasSize(2);
+        assertThat(table.get(0).getBody()).isEqualTo("first code");
+        assertThat(table.get(1).getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(table.get(1).getBody()).isEqualTo("second code");
+    }
+
+    @Test
+    void replacesPendingEmailOfSameTypePerRecipient() throws Exception {
+        emailService.sendMail(EmailType.OTP, "a@mindigo.test", "OTP", "first code");
+        emailService.sendMail(EmailType.OTP, "a@mindigo.test", "OTP", "second code");
+        emailService.sendMail(EmailType.OTP, "b@mindigo.test", "OTP", "other user's code");
+        emailService.sendMail(EmailType.PASSWORD_CHANGED, "a@mindigo.test", "Changed", "password changed");
+
+        assertThat(table).hasSize(3);
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        List<String> bodiesForA = new ArrayList<>();
+        for (MimeMessage message : received) {
+            if (message.getAllRecipients()[0].toString().equals("a@mindigo.test")) {
+                bodiesForA.add(GreenMailUtil.getBody(message).trim());
+            }
+        }
+        assertThat(bodiesForA).containsExactlyInAnyOrder("second code", "password changed");
+    }
+
+    private static void assertBackoff(LocalDateTime attemptedAt, LocalDateTime nextAttemptAt, long backoffMs) {
+        // +/-20% jitter, plus slack for the time the attempt itself took
+        long delayMs = Duration.between(attemptedAt, nextAttemptAt).toMillis();
+        assertThat(delayMs).isBetween((long) (backoffMs * 0.8), (long) (backoffMs * 1.2) + 5_000);
+    }
+
+    private static void makeDue(EmailOutbox email) {
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private EmailOutboxRepository inMemoryRepository() {
+        EmailOutboxRepository repo = mock(EmailOutboxRepository.class);
+
+        when(repo.replacePending(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            int updated = 0;
+            for (EmailOutbox email : table) {
+                if (email.getRecipient().equals(invocation.getArgument(0))
+                        && email.getEmailType() == invocation.getArgument(1)
+                        && email.getStatus() == EmailOutboxStatus.PENDING) {
+                    email.setSubject(invocation.getArgument(2));
+                    email.setBody(invocation.getArgument(3));
+                    email.setNextAttemptAt(invocation.getArgument(4));
+                    updated++;
+                }
+            }
+            return updated;
+        });
+
+        when(repo.insertPending(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            table.add(EmailOutbox.builder()
+                    .id((long) table.size() + 1)
+                    .recipient(invocation.getArgument(0))
+                    .emailType(EmailType.valueOf(invocation.getArgument(1)))
+                    .subject(invocation.getArgument(2))
+                    .body(invocation.getArgument(3))
+                    .nextAttemptAt(invocation.getArgument(4))
+                    .build());
+            return 1;
+        });
+
+        when(repo.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(repo.lockDue(any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return table.stream()
+                    .filter(email -> (email.getStatus() == EmailOutboxStatus.PENDING && !email.getNextAttemptAt().isAfter(now))
+                            || (email.getStatus() == EmailOutboxStatus.SENDING && email.getLockedUntil().isBefore(now)))
+                    .sorted(Comparator.comparing(EmailOutbox::getId))
+                    .limit(limit)
+                    .toList();
+        });
+
+        when(repo.markSent(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            LocalDateTime now = invocation.getArgument(1);
+            int updated = 0;
+            for (EmailOutbox email : table) {
+                if (ids.contains(email.getId())) {
+                    email.setStatus(EmailOutboxStatus.SENT);
+                    email.setSentAt(now);
+                    email.setLockedUntil(null);
+                    email.setBody("");
+                    updated++;
+                }
+            }
+            return updated;
+        });
+
+        return repo;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mindigo.auth_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedMpscRingTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new BoundedMpscRing<String>(8).capacity()).isEqualTo(8);
+        assertThat(new BoundedMpscRing<String>(100).capacity()).isEqualTo(128);
+    }
+
+    @Test
+    void offerFailsOnceFullAndSucceedsAgainAfterDrain() {
+        BoundedMpscRing<Integer> ring = new BoundedMpscRing<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drainTo(drained, 1)).isEqualTo(1);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isFalse();
+    }
+
+    @Test
+    void drainsInFifoOrderRespectingMaxAcrossWrapArounds() {
+        BoundedMpscRing<Integer> ring = new BoundedMpscRing<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(ring.offer(next++)).isTrue();
+            }
+            assertThat(ring.drainTo(drained, 2)).isEqualTo(2);
+            assertThat(ring.drainTo(drained, 10)).isEqualTo(1);
+            assertThat(ring.size()).isZero();
+        }
+
+        assertThat(drained).hasSize(30);
+        for (int i = 0; i < drained.size(); i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void drainOfEmptyRingMovesNothing() {
+        BoundedMpscRing<Integer> ring = new BoundedMpscRing<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(ring.drainTo(drained, 10)).isZero();
+        assertThat(drained).isEmpty();
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryItemOnceInPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        BoundedMpscRing<long[]> ring = new BoundedMpscRing<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        // Spin while full, the consumer below keeps draining
+                        while (!ring.offer(new long[]{producer, i})) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            List<long[]> batch = new ArrayList<>();
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < producers * perProducer && System.nanoTime() < deadline) {
+                batch.clear();
+                received += ring.drainTo(batch, 128);
+                for (long[] item : batch) {
+                    int producer = (int) item[0];
+                    assertThat(item[1]).isEqualTo(lastSeen[producer] + 1);
+                    lastSeen[producer] = item[1];
+                }
+            }
+
+            assertThat(received).isEqualTo(producers * perProducer);
+            assertThat(lastSeen).containsOnly(perProducer - 1);
+            assertThat(ring.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
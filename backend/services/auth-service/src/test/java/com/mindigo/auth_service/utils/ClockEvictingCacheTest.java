@@ -0,0 +1,79 @@
+package com.mindigo.auth_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClockEvictingCacheTest {
+
+    @Test
+    void returnsWhatWasPut() {
+        ClockEvictingCache<String, String> cache = new ClockEvictingCache<>(10);
+        cache.put("a", "1");
+        cache.put("a", "2");
+
+        assertThat(cache.get("a")).isEqualTo("2");
+        assertThat(cache.get("b")).isNull();
+
+        cache.remove("a");
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void evictsDownToLowWaterWhenFull() {
+        ClockEvictingCache<Integer, Integer> cache = new ClockEvictingCache<>(100);
+        for (int i = 0; i <= 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isEqualTo(90);
+    }
+
+    @Test
+    void keepsEntriesReadSinceTheLastSweep() {
+        ClockEvictingCache<Integer, Integer> cache = new ClockEvictingCache<>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        List<Integer> hot = new ArrayList<>();
+        for (int i = 0; i < 100; i += 10) {
+            cache.get(i);
+            hot.add(i);
+        }
+
+        cache.put(1000, 1000);
+
+        for (int key : hot) {
+            assertThat(cache.get(key)).isEqualTo(key);
+        }
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentPuts() throws InterruptedException {
+        ClockEvictingCache<Integer, Integer> cache = new ClockEvictingCache<>(1000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 100_000;
+            executor.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    cache.put(offset + i, i);
+                    cache.get(offset + i / 2);
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(cache.size()).isLessThanOrEqualTo(1000 + threads);
+    }
+}
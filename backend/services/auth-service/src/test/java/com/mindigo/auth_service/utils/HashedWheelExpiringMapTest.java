@@ -0,0 +1,91 @@
+package com.mindigo.auth_service.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedWheelExpiringMapTest {
+
+    private final HashedWheelExpiringMap<String, String> map = new HashedWheelExpiringMap<>("test", 10, 8);
+
+    @AfterEach
+    void shutdown() {
+        map.shutdown();
+    }
+
+    @Test
+    void returnsValueUntilItsDeadline() throws InterruptedException {
+        map.put("a", "1", Duration.ofMillis(150));
+        assertThat(map.get("a")).isEqualTo("1");
+
+        Thread.sleep(200);
+        assertThat(map.get("a")).isNull();
+    }
+
+    @Test
+    void tickerReclaimsExpiredEntriesWithoutReads() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            map.put("key-" + i, "value", Duration.ofMillis(20));
+        }
+        assertThat(map.size()).isEqualTo(100);
+
+        awaitSize(0, Duration.ofSeconds(2));
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void keepsEntriesDueMoreThanOneRevolutionAhead() throws InterruptedException {
+        // 8 buckets of 10 ms: a 300 ms deadline passes its bucket several times before it is due
+        map.put("far", "1", Duration.ofMillis(300));
+
+        Thread.sleep(150);
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.get("far")).isEqualTo("1");
+
+        awaitSize(0, Duration.ofSeconds(2));
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void replacementWithLaterDeadlineSurvivesTheEarlierTimeout() throws InterruptedException {
+        map.put("a", "old", Duration.ofMillis(20));
+        map.put("a", "new", Duration.ofSeconds(5));
+
+        Thread.sleep(100);
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.get("a")).isEqualTo("new");
+    }
+
+    @Test
+    void updateKeepsDeadlineAndIgnoresMissingOrExpiredEntries() throws InterruptedException {
+        map.put("a", "1", Duration.ofMillis(150));
+        assertThat(map.update("a", value -> value + "2")).isEqualTo("12");
+        assertThat(map.get("a")).isEqualTo("12");
+        assertThat(map.update("missing", value -> value + "2")).isNull();
+
+        Thread.sleep(200);
+        assertThat(map.update("a", value -> value + "3")).isNull();
+        assertThat(map.get("a")).isNull();
+    }
+
+    @Test
+    void removeReturnsOnlyLiveValues() throws InterruptedException {
+        map.put("live", "1", Duration.ofSeconds(5));
+        map.put("expired", "2", Duration.ofMillis(1));
+        Thread.sleep(20);
+
+        assertThat(map.remove("live")).isEqualTo("1");
+        assertThat(map.remove("live")).isNull();
+        assertThat(map.remove("expired")).isNull();
+    }
+
+    private void awaitSize(int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (map.size() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
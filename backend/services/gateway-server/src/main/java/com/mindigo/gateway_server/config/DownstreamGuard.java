@@ -0,0 +1,343 @@
+package com.mindigo.gateway_server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Protects one downstream with three layers, cheapest first:
+ * <ol>
+ *     <li>a circuit breaker that fails fast while the downstream keeps failing,</li>
+ *     <li>an adaptive concurrency limit (gradient style: the limit shrinks as latency rises above the
+ *     observed minimum and grows while latency stays flat),</li>
+ *     <li>a per-call timeout.</li>
+ * </ol>
+ * It also holds the retry budget for the downstream: every call deposits a fraction of a retry
+ * and every retry withdraws a whole one, so retries never amplify an outage.
+ *
+ * Instances are created through {@link DownstreamGuardRegistry}.
+ */
+public class DownstreamGuard {
+
+    private final String name;
+    private final Duration timeout;
+    private final AdaptiveLimit limit;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejectedByLimit;
+    private final Counter rejectedByCircuit;
+    private final Counter timeouts;
+
+    DownstreamGuard(String name, DownstreamGuardRegistry.Settings settings, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeout = Duration.ofMillis(settings.getTimeoutMs());
+        this.limit = new AdaptiveLimit(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit());
+        this.circuitBreaker = new CircuitBreaker(settings.getFailureRateThreshold(), settings.getMinimumCalls(),
+                settings.getWindowSize(), settings.getOpenDurationMs());
+        this.retryBudget = new RetryBudget(settings.getRetryRatio(), settings.getMinRetriesPerSecond());
+
+        Gauge.builder("gateway.downstream.limit", limit, AdaptiveLimit::get).tag("downstream", name).register(meterRegistry);
+        Gauge.builder("gateway.downstream.inflight", inFlight, AtomicInteger::get).tag("downstream", name).register(meterRegistry);
+        Gauge.builder("gateway.downstream.circuit.open", circuitBreaker, cb -> cb.isOpen() ? 1 : 0)
+                .tag("downstream", name).register(meterRegistry);
+        this.rejectedByLimit = meterRegistry.counter("gateway.downstream.rejected", "downstream", name, "reason", "limit");
+        this.rejectedByCircuit = meterRegistry.counter("gateway.downstream.rejected", "downstream", name, "reason", "circuit_open");
+        this.timeouts = meterRegistry.counter("gateway.downstream.timeouts", "downstream", name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Runs the call if the breaker and the concurrency limit allow it, otherwise fails with
+     * {@link DownstreamUnavailableException} without touching the downstream.
+     *
+     * @param call the downstream call, subscribed at most once
+     * @param failedResponse checked on successful completion, e.g. to treat a 5xx response as a failure
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call, BooleanSupplier failedResponse) {
+        return Mono.defer(() -> {
+            CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                rejectedByCircuit.increment();
+                return Mono.error(new DownstreamUnavailableException(HttpStatus.SERVICE_UNAVAILABLE,
+                        name + " is temporarily unavailable"));
+            }
+            if (!tryAcquireSlot()) {
+                circuitBreaker.release(permit);
+                rejectedByLimit.increment();
+                return Mono.error(new DownstreamUnavailableException(HttpStatus.SERVICE_UNAVAILABLE,
+                        name + " is busy, please retry shortly"));
+            }
+
+            long start = System.nanoTime();
+            retryBudget.deposit();
+            // Deferred so a supplier that throws still goes through doFinally
+            return Mono.defer(call)
+                    .timeout(timeout)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        timeouts.increment();
+                        return new DownstreamUnavailableException(HttpStatus.GATEWAY_TIMEOUT,
+                                name + " did not respond in time");
+                    })
+                    .doFinally(signal -> {
+                        int current = inFlight.getAndDecrement();
+                        boolean failed = signal == SignalType.ON_ERROR
+                                || (signal == SignalType.ON_COMPLETE && failedResponse.getAsBoolean());
+                        // A cancelled call says nothing about the downstream's health
+                        if (signal != SignalType.CANCEL) {
+                            limit.onSample(System.nanoTime() - start, current, failed);
+                            circuitBreaker.onResult(permit, failed);
+                        } else {
+                            circuitBreaker.release(permit);
+                        }
+                    });
+        });
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gradient concurrency limit: newLimit = limit * (minRtt / rtt) + sqrt(limit), smoothed, with a
+     * multiplicative decrease on failures. The minimum RTT is re-probed periodically so the baseline
+     * can follow a downstream that became permanently slower.
+     */
+    static final class AdaptiveLimit {
+        private static final double SMOOTHING = 0.2;
+        private static final double BACKOFF = 0.9;
+        private static final int MIN_RTT_RESET_SAMPLES = 1000;
+
+        private final int minLimit;
+        private final int maxLimit;
+        private volatile double limit;
+        private long minRtt = Long.MAX_VALUE;
+        private int samples;
+
+        AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+            this.limit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+
+        int get() {
+            return (int) limit;
+        }
+
+        synchronized void onSample(long rtt, int inFlight, boolean failed) {
+            if (failed) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                return;
+            }
+
+            if (++samples >= MIN_RTT_RESET_SAMPLES) {
+                samples = 0;
+                minRtt = rtt;
+            }
+            minRtt = Math.min(minRtt, rtt);
+
+            // Don't grow the limit while the downstream is not actually being pushed to it
+            if (inFlight < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, (double) minRtt / rtt));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        }
+    }
+
+    /**
+     * Count-based breaker over the last {@code windowSize} calls. While OPEN every call is rejected;
+     * after {@code openDurationMs} a single probe is let through (HALF_OPEN) and its result closes or
+     * re-opens the circuit. The probe is told apart from calls admitted before the circuit opened by
+     * its {@link Permit}, so a late result or cancellation of such a call cannot settle HALF_OPEN.
+     */
+    static final class CircuitBreaker {
+        private enum State { CLOSED, OPEN, HALF_OPEN }
+
+        // Compared by identity; every call admitted while CLOSED shares one
+        static final class Permit {
+        }
+
+        private static final Permit CLOSED_PERMIT = new Permit();
+
+        private final double failureRateThreshold;
+        private final int minimumCalls;
+        private final boolean[] window;
+        private final long openDurationMillis;
+
+        private State state = State.CLOSED;
+        private int position;
+        private int recorded;
+        private int failures;
+        private long openedAt;
+        private Permit probe;
+
+        CircuitBreaker(double failureRateThreshold, int minimumCalls, int windowSize, long openDurationMillis) {
+            this.failureRateThreshold = failureRateThreshold;
+            this.minimumCalls = minimumCalls;
+            this.window = new boolean[windowSize];
+            this.openDurationMillis = openDurationMillis;
+        }
+
+        synchronized boolean isOpen() {
+            return state != State.CLOSED;
+        }
+
+        /**
+         * @return the call's permit, or null if the call is rejected
+         */
+        synchronized Permit tryAcquire() {
+            switch (state) {
+                case CLOSED:
+                    return CLOSED_PERMIT;
+                case OPEN:
+                    if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                        return null;
+                    }
+                    state = State.HALF_OPEN;
+                    probe = new Permit();
+                    return probe;
+                default:
+                    if (probe != null) {
+                        return null;
+                    }
+                    probe = new Permit();
+                    return probe;
+            }
+        }
+
+        // Call was admitted by tryAcquire but never reached the downstream, or was cancelled
+        synchronized void release(Permit permit) {
+            if (permit == probe) {
+                probe = null;
+            }
+        }
+
+        synchronized void onResult(Permit permit, boolean failed) {
+            if (state == State.HALF_OPEN) {
+                // Only the probe decides; calls from before the circuit opened say nothing about now
+                if (permit != probe) {
+                    return;
+                }
+                probe = null;
+                if (failed) {
+                    open();
+                } else {
+                    state = State.CLOSED;
+                    reset();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+
+            if (recorded == window.length) {
+                if (window[position]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            window[position] = failed;
+            if (failed) {
+                failures++;
+            }
+            position = (position + 1) % window.length;
+
+            if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            reset();
+        }
+
+        private void reset() {
+            position = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+
+    /**
+     * Retries allowed = {@code ratio} of recent calls plus a small floor that refills every second.
+     * Balances are kept in thousandths of a retry.
+     */
+    public static final class RetryBudget {
+        private static final long UNIT = 1000;
+
+        private final long depositPerCall;
+        private final long floorPerSecond;
+        private final long maxBalance;
+        private final AtomicLong balance = new AtomicLong();
+        private final AtomicLong lastRefill = new AtomicLong(System.currentTimeMillis());
+
+        RetryBudget(double ratio, int minRetriesPerSecond) {
+            this.depositPerCall = (long) (ratio * UNIT);
+            this.floorPerSecond = minRetriesPerSecond * UNIT;
+            this.maxBalance = Math.max(10, minRetriesPerSecond * 10L) * UNIT;
+        }
+
+        void deposit() {
+            add(depositPerCall);
+        }
+
+        public boolean tryWithdraw() {
+            refillFloor();
+            while (true) {
+                long current = balance.get();
+                if (current < UNIT) {
+                    return false;
+                }
+                if (balance.compareAndSet(current, current - UNIT)) {
+                    return true;
+                }
+            }
+        }
+
+        private void refillFloor() {
+            long now = System.currentTimeMillis();
+            long last = lastRefill.get();
+            if (now - last >= 1000 && lastRefill.compareAndSet(last, now)) {
+                add(floorPerSecond);
+            }
+        }
+
+        private void add(long amount) {
+            balance.accumulateAndGet(amount, (current, delta) -> Math.min(maxBalance, current + delta));
+        }
+    }
+}
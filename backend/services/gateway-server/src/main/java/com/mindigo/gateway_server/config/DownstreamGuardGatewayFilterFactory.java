@@ -0,0 +1,99 @@
+package com.mindigo.gateway_server.config;
+
+import com.mindigo.gateway_server.util.GatewayErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wraps the proxied call of a route in its downstream's {@link DownstreamGuard}: circuit breaker,
+ * adaptive concurrency limit and timeout. Rejections are answered immediately with the gateway's
+ * JSON error body (503, or 504 on timeout) instead of queueing behind a struggling service.
+ *
+ * Idempotent requests (GET/HEAD) that fail before any response byte was written, e.g. connection
+ * refused by a dying instance, are retried on another instance while the downstream's retry budget
+ * allows it.
+ *
+ * <pre>
+ * - name: DownstreamGuard
+ *   args:
+ *     timeoutMs: 5000
+ *     maxLimit: 100
+ *     retries: 1
+ * </pre>
+ */
+@Component
+public class DownstreamGuardGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<DownstreamGuardGatewayFilterFactory.Config> {
+
+    private final DownstreamGuardRegistry registry;
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamGuardGatewayFilterFactory(DownstreamGuardRegistry registry, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String name = config.getDownstream() != null ? config.getDownstream() : config.getRouteId();
+        DownstreamGuard guard = registry.getOrCreate(name, config);
+        Counter retried = meterRegistry.counter("gateway.downstream.retries", "downstream", name);
+        int retries = Math.max(0, config.getRetries());
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            boolean idempotent = HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+
+            return attempt(exchange, chain, guard, idempotent ? retries : 0, retried)
+                    .onErrorResume(DownstreamUnavailableException.class, e -> {
+                        if (exchange.getResponse().isCommitted()) {
+                            return Mono.error(e);
+                        }
+                        return GatewayErrorResponses.write(exchange, e.getStatus(), e.getMessage(), 1);
+                    });
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, DownstreamGuard guard,
+                               int retriesLeft, Counter retried) {
+        return guard.execute(() -> chain.filter(exchange), () -> isServerError(exchange))
+                .onErrorResume(e -> retriesLeft > 0
+                                && !(e instanceof DownstreamUnavailableException)
+                                && !exchange.getResponse().isCommitted()
+                                && guard.getRetryBudget().tryWithdraw(),
+                        e -> {
+                            retried.increment();
+                            // Clears the routed marker so the load balancer picks an instance again
+                            ServerWebExchangeUtils.reset(exchange);
+                            return attempt(exchange, chain, guard, retriesLeft - 1, retried);
+                        });
+    }
+
+    private boolean isServerError(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    @Getter
+    @Setter
+    public static class Config extends DownstreamGuardRegistry.Settings implements HasRouteId {
+        // Guard name shared by routes to the same service; defaults to the route id
+        private String downstream;
+        // Extra attempts for GET/HEAD on connection-level failures, bounded by the retry budget
+        private int retries = 1;
+        private String routeId;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mindigo.gateway_server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link DownstreamGuard} per downstream name, shared by every route and client that calls it.
+ * Guards survive route refreshes so their learned limit and circuit state are not reset; changed
+ * settings take effect on the next restart.
+ */
+@Component
+public class DownstreamGuardRegistry {
+
+    private final Map<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamGuardRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DownstreamGuard getOrCreate(String name, Settings settings) {
+        return guards.computeIfAbsent(name, n -> new DownstreamGuard(n, settings, meterRegistry));
+    }
+
+    /**
+     * The guard created by a route's DownstreamGuard filter, or null if there is none.
+     */
+    public DownstreamGuard find(String name) {
+        return guards.get(name);
+    }
+
+    @Getter
+    @Setter
+    public static class Settings {
+        private long timeoutMs = 10000;
+
+        // Adaptive concurrency limit bounds
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+
+        // Circuit opens when failureRateThreshold of the last windowSize calls failed (after minimumCalls)
+        private double failureRateThreshold = 0.5;
+        private int minimumCalls = 20;
+        private int windowSize = 50;
+        private long openDurationMs = 10000;
+
+        // Retries may add at most retryRatio extra load on top of minRetriesPerSecond
+        private double retryRatio = 0.1;
+        private int minRetriesPerSecond = 1;
+    }
+}
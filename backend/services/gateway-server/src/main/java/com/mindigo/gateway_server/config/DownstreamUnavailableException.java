@@ -0,0 +1,21 @@
+package com.mindigo.gateway_server.config;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised by {@link DownstreamGuard} when a call is rejected up front (open circuit, concurrency
+ * limit) or times out. Carries the status the gateway should answer with.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public DownstreamUnavailableException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mindigo.gateway_server.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes requests of the services listed under {@code app.gateway.upstream.h2c} over cleartext
+ * HTTP/2 (prior knowledge), multiplexing many requests onto a few connections per instance instead
+ * of one HTTP/1.1 connection per in-flight request.
+ *
+ * Runs just before the default {@link NettyRoutingFilter}; requests of other services pass through
+ * untouched and are routed by it over the shared HTTP/1.1 pool. Each h2c service has its own pool
+ * with Reactor Netty metrics enabled ({@code reactor.netty.connection.provider.*}, including
+ * {@code pending.connections.time} for acquisition latency), named {@code h2c-<service>}.
+ *
+ * The target service must accept h2c, e.g. {@code server.http2.enabled: true} on Tomcat.
+ */
+public class H2cRoutingFilter extends NettyRoutingFilter {
+
+    private final Map<String, HttpClient> clients = new HashMap<>();
+
+    public H2cRoutingFilter(HttpClient httpClient,
+                            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                            HttpClientProperties properties,
+                            Map<String, Settings> services) {
+        super(httpClient, headersFiltersProvider, properties);
+        services.forEach((service, settings) -> clients.put(service.toLowerCase(), createClient(service, settings)));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (clientFor(exchange) == null) {
+            return chain.filter(exchange);
+        }
+        return super.filter(exchange, chain);
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = clientFor(exchange);
+        return client != null ? client : super.getHttpClient(route, exchange);
+    }
+
+    private HttpClient clientFor(ServerWebExchange exchange) {
+        if (clients.isEmpty()) {
+            return null;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || route.getUri().getHost() == null) {
+            return null;
+        }
+        return clients.get(route.getUri().getHost().toLowerCase());
+    }
+
+    private static HttpClient createClient(String service, Settings settings) {
+        ConnectionProvider provider = ConnectionProvider.builder("h2c-" + service)
+                .allocationStrategy(Http2AllocationStrategy.builder()
+                        .maxConnections(settings.getMaxConnections())
+                        .minConnections(1)
+                        .maxConcurrentStreams(settings.getMaxConcurrentStreams())
+                        .build())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(settings.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(settings.getMaxIdleTimeMs()))
+                .evictInBackground(Duration.ofMillis(settings.getEvictionIntervalMs()))
+                .metrics(true)
+                .build();
+
+        return HttpClient.create(provider)
+                .protocol(HttpProtocol.H2C)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, settings.getConnectTimeoutMs());
+    }
+
+    // Limits apply per service instance (Reactor Netty keeps one pool per remote address)
+    @Getter
+    @Setter
+    public static class Settings {
+        private int maxConnections = 4;
+        private long maxConcurrentStreams = 100;
+        private int pendingAcquireMaxCount = 1000;
+        private long pendingAcquireTimeoutMs = 5000;
+        private long maxIdleTimeMs = 60000;
+        private long evictionIntervalMs = 30000;
+        private int connectTimeoutMs = 2000;
+    }
+}
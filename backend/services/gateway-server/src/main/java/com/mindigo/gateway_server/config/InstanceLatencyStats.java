@@ -0,0 +1,114 @@
+package com.mindigo.gateway_server.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-instance outstanding request count and EWMA response latency, fed by
+ * {@link LoadBalancerStatsFilter} from the gateway's own proxied calls. Instance ids change on every
+ * restart, so stats of instances that have not been called for a while are swept.
+ */
+@Component
+public class InstanceLatencyStats {
+
+    private static final double ALPHA = 0.3;
+    private static final long IDLE_NANOS = Duration.ofMinutes(10).toNanos();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private Disposable sweeper;
+
+    @PostConstruct
+    public void startSweeper() {
+        sweeper = Flux.interval(Duration.ofMinutes(1))
+                .subscribe(tick -> evictIdle());
+    }
+
+    @PreDestroy
+    public void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    public void onStart(ServiceInstance instance) {
+        Stats s = statsFor(instance);
+        s.outstanding.incrementAndGet();
+        s.lastUsed = System.nanoTime();
+    }
+
+    public void onComplete(ServiceInstance instance, long latencyNanos) {
+        Stats s = statsFor(instance);
+        s.outstanding.decrementAndGet();
+        s.record(latencyNanos);
+        s.lastUsed = System.nanoTime();
+    }
+
+    /**
+     * Mean EWMA latency of the sampled instances among {@code instances}, or 0 when none has a sample yet.
+     */
+    public double meanLatency(List<ServiceInstance> instances) {
+        double sum = 0;
+        int sampled = 0;
+        for (ServiceInstance instance : instances) {
+            Stats s = stats.get(key(instance));
+            if (s != null && s.ewmaNanos > 0) {
+                sum += s.ewmaNanos;
+                sampled++;
+            }
+        }
+        return sampled == 0 ? 0 : sum / sampled;
+    }
+
+    /**
+     * Lower is better. Outstanding requests multiply the latency so a stalled instance stops receiving
+     * traffic quickly. An instance without a sample is assumed to be as fast as {@code seedLatencyNanos}
+     * (the mean of its peers), so a new instance is probed at a fair share instead of flooded, and its
+     * first requests still count against it while none has completed.
+     */
+    public double score(ServiceInstance instance, double seedLatencyNanos) {
+        Stats s = stats.get(key(instance));
+        if (s == null) {
+            return seedLatencyNanos;
+        }
+        double latency = s.ewmaNanos > 0 ? s.ewmaNanos : seedLatencyNanos;
+        return latency * (s.outstanding.get() + 1);
+    }
+
+    private Stats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new Stats());
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        // Entries with a call in flight stay, or its onComplete would recreate them at -1 outstanding
+        stats.values().removeIf(s -> s.outstanding.get() <= 0 && now - s.lastUsed > IDLE_NANOS);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class Stats {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile double ewmaNanos;
+        private volatile long lastUsed = System.nanoTime();
+
+        // Racy read-modify-write is acceptable here, a lost sample only delays convergence slightly
+        void record(long latencyNanos) {
+            double current = ewmaNanos;
+            ewmaNanos = current == 0 ? latencyNanos : current + ALPHA * (latencyNanos - current);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.mindigo.gateway_server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached copy of auth-service's /.well-known/jwks.json, so tokens are verified without a network call.
+ *
+ * The set is refreshed every {@code refresh-interval-ms}. A lookup for an unknown kid (or an empty set,
+ * e.g. right after startup) brings the next refresh forward to within {@code min-refresh-interval-ms};
+ * auth-service publishes keys well before signing with them, so this only matters after outages.
+ * On a failed fetch the previous set is kept.
+ */
+@Component
+public class JwksKeySet {
+
+    private final WebClient webClient;
+    private final long refreshIntervalMs;
+    private final long minRefreshIntervalMs;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshAt = 0;
+    private volatile boolean refreshRequested = true;
+    private Disposable subscription;
+
+    public JwksKeySet(ReactorLoadBalancerExchangeFilterFunction lbFunction,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.jwt.jwks.refresh-interval-ms:300000}") long refreshIntervalMs,
+                      @Value("${app.jwt.jwks.min-refresh-interval-ms:10000}") long minRefreshIntervalMs) {
+        this.webClient = WebClient.builder()
+                .filter(lbFunction)
+                .build();
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+
+        Gauge.builder("gateway.auth.jwks.keys", this, set -> set.keys.size()).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, Duration.ofMillis(minRefreshIntervalMs))
+                .onBackpressureDrop()
+                .filter(tick -> refreshRequested || System.currentTimeMillis() - lastRefreshAt >= refreshIntervalMs)
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Public key for a kid, or null if it is not (yet) known. Never blocks.
+     */
+    public PublicKey get(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            refreshRequested = true;
+        }
+        return key;
+    }
+
+    private Mono<Void> refresh() {
+        refreshRequested = false;
+        return webClient.get()
+                .uri("http://AUTH-SERVICE/.well-known/jwks.json")
+                .retrieve()
+                .bodyToMono(Jwks.class)
+                .doOnNext(this::apply)
+                .then()
+                .onErrorResume(e -> {
+                    System.err.println("JWKS refresh failed: " + e.getMessage());
+                    refreshRequested = keys.isEmpty();
+                    return Mono.empty();
+                });
+    }
+
+    private void apply(Jwks jwks) {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        if (jwks.getKeys() != null) {
+            for (Jwk jwk : jwks.getKeys()) {
+                try {
+                    parsed.put(jwk.getKid(), jwk.toPublicKey());
+                } catch (Exception e) {
+                    System.err.println("Ignoring unsupported JWK " + jwk.getKid() + ": " + e.getMessage());
+                }
+            }
+        }
+        keys = Map.copyOf(parsed);
+        lastRefreshAt = System.currentTimeMillis();
+    }
+
+    public static class Jwks {
+        private List<Jwk> keys;
+
+        public List<Jwk> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(List<Jwk> keys) {
+            this.keys = keys;
+        }
+    }
+
+    // Only the EC P-256 members auth-service publishes are mapped
+    public static class Jwk {
+        private String kty;
+        private String crv;
+        private String kid;
+        private String x;
+        private String y;
+
+        public String getKty() {
+            return kty;
+        }
+
+        public void setKty(String kty) {
+            this.kty = kty;
+        }
+
+        public String getCrv() {
+            return crv;
+        }
+
+        public void setCrv(String crv) {
+            this.crv = crv;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getX() {
+            return x;
+        }
+
+        public void setX(String x) {
+            this.x = x;
+        }
+
+        public String getY() {
+            return y;
+        }
+
+        public void setY(String y) {
+            this.y = y;
+        }
+
+        PublicKey toPublicKey() throws Exception {
+            if (!"EC".equals(kty) || !"P-256".equals(crv) || kid == null) {
+                throw new IllegalArgumentException("expected an EC P-256 key with a kid");
+            }
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECPoint point = new ECPoint(
+                    new BigInteger(1, Base64.getUrlDecoder().decode(x)),
+                    new BigInteger(1, Base64.getUrlDecoder().decode(y)));
+            return KeyFactory.getInstance("EC")
+                    .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+        }
+    }
+}
@@ -1,46 +1,87 @@
 package com.mindigo.gateway_server.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindigo.gateway_server.util.GatewayErrorResponses;
+import com.mindigo.gateway_server.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Component("JwtAuthFilter")
 public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<JwtAuthGatewayFilterFactory.Config> {
 
+    // Exchange attribute holding the verified user id for filters that run after JwtAuth
+    public static final String AUTHENTICATED_USER_ID_ATTR = "mindigo.authenticatedUserId";
+
+    private static final List<String> IDENTITY_HEADERS =
+            List.of("X-User-Id", "X-User-Email", "X-User-Role", "X-User-Name", "X-Authenticated");
+
     private final WebClient webClient;
+    private final DownstreamGuard authGuard;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
     private RouteValidator routeValidator;
 
-    public JwtAuthGatewayFilterFactory(ReactorLoadBalancerExchangeFilterFunction lbFunction) {
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenValidationCache validationCache;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    public JwtAuthGatewayFilterFactory(ReactorLoadBalancerExchangeFilterFunction lbFunction,
+                                       DownstreamGuardRegistry guardRegistry,
+                                       @Value("${app.auth.validation.timeout-ms:2000}") long timeoutMs,
+                                       @Value("${app.auth.validation.max-concurrency:100}") int maxConcurrency) {
         super(Config.class);
         this.webClient = WebClient.builder()
                 .filter(lbFunction) // Enable Eureka load balancing
                 .build();
+
+        // Remote /validate calls get their own limit and breaker so a slow auth-service can't pile up requests
+        DownstreamGuardRegistry.Settings settings = new DownstreamGuardRegistry.Settings();
+        settings.setTimeoutMs(timeoutMs);
+        settings.setMaxLimit(maxConcurrency);
+        this.authGuard = guardRegistry.getOrCreate("auth-service-validate", settings);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("mode");
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         System.out.println("???");
-        return (exchange, chain) -> {
+        return (incoming, chain) -> {
+            // Identity headers are only trusted downstream when set below, never when sent by the client
+            ServerWebExchange exchange = incoming.mutate()
+                    .request(incoming.getRequest().mutate()
+                            .headers(headers -> IDENTITY_HEADERS.forEach(headers::remove))
+                            .build())
+                    .build();
+
             // Skip authentication for unsecured routes
             System.out.println("here");
             if (!routeValidator.isSecured.test(exchange.getRequest())) {
@@ -62,45 +103,17 @@ public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Jw
             }
             System.out.println("yes");
 
-            // Validate JWT and get user details
-            return webClient.get()
-                    .uri("http://AUTH-SERVICE/api/v1/auth/validate?token=" + jwt)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, response -> {
-                        if (response.statusCode() == HttpStatus.UNAUTHORIZED) {
-                            return Mono.error(new RuntimeException("Invalid or expired JWT token"));
-                        }
-                        return Mono.error(new RuntimeException("Auth service error: " + response.statusCode()));
-                    })
-                    .bodyToMono(ApiResponseClass.class)
-                    .flatMap(apiResponse -> {
-                        // Check if the API response indicates success
-                        if (!apiResponse.isSuccess() || apiResponse.getData() == null) {
-                            return Mono.error(new RuntimeException("Invalid JWT token: " + apiResponse.getMessage()));
-                        }
-
-                        ValidateResponse validateResponse = apiResponse.getData();
-
-                        // Validate response data
-                        if (validateResponse.getUserId() == null || validateResponse.getEmail() == null) {
-                            return Mono.error(new RuntimeException("Invalid JWT token: Missing user data"));
-                        }
-
-                        System.out.println("Validated user: " + validateResponse.getEmail() +
-                                " (ID: " + validateResponse.getUserId() + ")");
-
-                        // Add user info to request headers for downstream services
-                        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                                .header("X-User-Id", String.valueOf(validateResponse.getUserId()))
-                                .header("X-User-Email", validateResponse.getEmail())
-                                .header("X-User-Role", validateResponse.getRole())
-                                .header("X-User-Name", validateResponse.getUserName())
-                                .header("X-Authenticated", "true")
-                                .build();
-
-                        // Continue with modified request
-                        return chain.filter(exchange.mutate().request(modifiedRequest).build());
-                    })
+            if (config.getMode() == Mode.LOCAL) {
+                return verifyLocally(exchange, chain, jwt);
+            }
+
+            // Validate JWT and get user details (cached per token, concurrent misses share one call)
+            return validationCache.get(jwt, () -> validateRemotely(jwt))
+                    // Continue with modified request
+                    .flatMap(validateResponse -> forwardAuthenticated(exchange, chain, jwt, validateResponse))
+                    .onErrorResume(DownstreamUnavailableException.class, e -> exchange.getResponse().isCommitted()
+                            ? Mono.error(e)
+                            : GatewayErrorResponses.write(exchange, e.getStatus(), "Authentication service unavailable", 1))
                     .onErrorResume(Exception.class, e -> {
                         System.err.println("Authentication failed: " + e.getMessage());
                         return createUnauthorizedResponse(exchange, "Invalid or expired token");
@@ -108,18 +121,99 @@ public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Jw
         };
     }
 
-    private Mono<Void> createUnauthorizedResponse(org.springframework.web.server.ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json");
+    private Mono<ValidateResponse> validateRemotely(String jwt) {
+        return authGuard.execute(() -> webClient.get()
+                        .uri("http://AUTH-SERVICE/api/v1/auth/validate?token=" + jwt)
+                        .exchangeToMono(response -> {
+                            if (response.statusCode().is5xxServerError()) {
+                                return response.releaseBody().then(Mono.<ApiResponseClass>error(
+                                        new RuntimeException("Auth service error: " + response.statusCode())));
+                            }
+                            if (response.statusCode().isError()) {
+                                // Rejected token: a normal answer, not an auth-service failure for the breaker
+                                return response.releaseBody().then(Mono.just(new ApiResponseClass()));
+                            }
+                            return response.bodyToMono(ApiResponseClass.class);
+                        }), () -> false)
+                .flatMap(apiResponse -> {
+                    // Check if the API response indicates success
+                    if (!apiResponse.isSuccess() || apiResponse.getData() == null) {
+                        return Mono.error(new RuntimeException("Invalid JWT token: " + apiResponse.getMessage()));
+                    }
+
+                    ValidateResponse validateResponse = apiResponse.getData();
+
+                    // Validate response data
+                    if (validateResponse.getUserId() == null || validateResponse.getEmail() == null) {
+                        return Mono.error(new RuntimeException("Invalid JWT token: Missing user data"));
+                    }
+
+                    System.out.println("Validated user: " + validateResponse.getEmail() +
+                            " (ID: " + validateResponse.getUserId() + ")");
+
+                    return Mono.just(validateResponse);
+                });
+    }
 
-        String body = String.format("{\"success\":false,\"error\":\"Unauthorized\",\"message\":\"%s\"}", message);
-        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
-        return response.writeWith(Mono.just(buffer));
+    /**
+     * Verifies the token signature and expiry in-process and builds the user identity from its claims,
+     * so the request never leaves the event loop for an auth-service round trip.
+     */
+    private Mono<Void> verifyLocally(ServerWebExchange exchange, GatewayFilterChain chain, String jwt) {
+        ValidateResponse validateResponse;
+        try {
+            validateResponse = ValidateResponse.fromClaims(jwtUtil.verify(jwt));
+        } catch (JwtException | IllegalArgumentException e) {
+            System.err.println("Authentication failed: " + e.getMessage());
+            return createUnauthorizedResponse(exchange, "Invalid or expired token");
+        }
+
+        if (validateResponse.getUserId() == null || validateResponse.getEmail() == null) {
+            return createUnauthorizedResponse(exchange, "Invalid or expired token");
+        }
+        return forwardAuthenticated(exchange, chain, jwt, validateResponse);
+    }
+
+    private Mono<Void> forwardAuthenticated(ServerWebExchange exchange, GatewayFilterChain chain, String jwt,
+                                            ValidateResponse validateResponse) {
+        // Logged-out tokens and deactivated users are pushed from auth-service, see TokenRevocationRegistry.
+        // Before its first snapshot it can't tell, so no token is accepted yet.
+        if (!revocationRegistry.isReady()) {
+            return GatewayErrorResponses.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Authentication service unavailable", 1);
+        }
+        if (revocationRegistry.isRevoked(jwt, validateResponse.getUserId())) {
+            return createUnauthorizedResponse(exchange, "Token has been revoked");
+        }
+
+        // Add user info to request headers for downstream services
+        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+                .header("X-User-Id", String.valueOf(validateResponse.getUserId()))
+                .header("X-User-Email", validateResponse.getEmail())
+                .header("X-User-Role", validateResponse.getRole())
+                .header("X-User-Name", validateResponse.getUserName())
+                .header("X-Authenticated", "true")
+                .build();
+
+        exchange.getAttributes().put(AUTHENTICATED_USER_ID_ATTR, String.valueOf(validateResponse.getUserId()));
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
+    }
+
+    private Mono<Void> createUnauthorizedResponse(ServerWebExchange exchange, String message) {
+        return GatewayErrorResponses.write(exchange, HttpStatus.UNAUTHORIZED, message);
+    }
+
+    public enum Mode {
+        // Call auth-service /validate for every request (checks the user still exists)
+        REMOTE,
+        // Verify signature and expiry in the gateway against the cached auth-service JWKS
+        LOCAL
     }
 
+    @Getter
+    @Setter
     public static class Config {
-        // Configuration properties can be added here if needed
+        private Mode mode = Mode.REMOTE;
     }
 
     // Wrapper class to match the ApiResponseClass structure from auth service
@@ -183,6 +277,10 @@ public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Jw
 
         public String getUserName() { return  userName;}
 
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
         public void setRole(String role) {
             this.role = role;
         }
@@ -195,5 +293,15 @@ public class JwtAuthGatewayFilterFactory extends AbstractGatewayFilterFactory<Jw
             this.valid = valid;
         }
 
+        // Access tokens carry the user id in "jti", the email in "sub" and role/name as custom claims
+        public static ValidateResponse fromClaims(Claims claims) {
+            ValidateResponse response = new ValidateResponse();
+            response.setUserId(claims.getId() != null ? Long.valueOf(claims.getId()) : null);
+            response.setEmail(claims.getSubject());
+            response.setRole(claims.get("role", String.class));
+            response.setUserName(claims.get("name", String.class));
+            response.setValid(true);
+            return response;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.mindigo.gateway_server.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices balancer: samples two instances at random and sends the request to the one
+ * with the lower {@link InstanceLatencyStats#score}. Random sampling avoids the herding that a strict
+ * "pick the global best" policy causes when every gateway sees the same stats. Instances without a
+ * latency sample yet are scored with the mean latency of the sampled ones, or with
+ * {@code defaultLatencyNanos} when no instance has been sampled.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceLatencyStats latencyStats;
+    private final double defaultLatencyNanos;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    String serviceId,
+                                    InstanceLatencyStats latencyStats,
+                                    double defaultLatencyNanos) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.latencyStats = latencyStats;
+        this.defaultLatencyNanos = defaultLatencyNanos;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            System.err.println("No servers available for service: " + serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        double mean = latencyStats.meanLatency(instances);
+        double seed = mean > 0 ? mean : defaultLatencyNanos;
+        return new DefaultResponse(latencyStats.score(a, seed) <= latencyStats.score(b, seed) ? a : b);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mindigo.gateway_server.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Per-service load balancer selection, registered as the default configuration of every
+ * load balancer child context (see {@link LoadBalancerConfig}). Services listed in
+ * {@code app.gateway.load-balancer.latency-aware} use {@link LatencyAwareLoadBalancer},
+ * everything else keeps the default round robin.
+ *
+ * Deliberately not annotated with {@code @Configuration}: it must only be picked up by the
+ * child contexts, not by component scanning.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            InstanceLatencyStats latencyStats) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        String[] latencyAware = environment.getProperty("app.gateway.load-balancer.latency-aware", String[].class, new String[0]);
+        long defaultLatencyMs = environment.getProperty("app.gateway.load-balancer.default-latency-ms", Long.class, 100L);
+
+        if (Arrays.stream(latencyAware).anyMatch(id -> id.trim().equalsIgnoreCase(serviceId))) {
+            return new LatencyAwareLoadBalancer(
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    serviceId,
+                    latencyStats,
+                    Duration.ofMillis(defaultLatencyMs).toNanos());
+        }
+        return new RoundRobinLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mindigo.gateway_server.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+/**
+ * Times every proxied call against the instance the load balancer picked and reports it to
+ * {@link InstanceLatencyStats}. Failures and 5xx responses are recorded with a latency penalty
+ * so an erroring instance is avoided even when it fails fast.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private static final long ERROR_PENALTY_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final InstanceLatencyStats latencyStats;
+
+    public LoadBalancerStatsFilter(InstanceLatencyStats latencyStats) {
+        this.latencyStats = latencyStats;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+        long start = System.nanoTime();
+        latencyStats.onStart(instance);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    long latency = System.nanoTime() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        latency = Math.max(latency, ERROR_PENALTY_NANOS);
+                    }
+                    latencyStats.onComplete(instance, latency);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the load balancer has chosen the instance
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
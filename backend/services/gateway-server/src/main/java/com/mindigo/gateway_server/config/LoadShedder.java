@@ -0,0 +1,67 @@
+package com.mindigo.gateway_server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gateway-wide in-flight request counter with priority-aware admission.
+ *
+ * Each priority may only be admitted while total in-flight requests are below its share of
+ * {@code max-in-flight}, so under overload LOW traffic (feeds, leaderboards) is shed first,
+ * then NORMAL, and HIGH (auth/login) keeps the full capacity.
+ */
+@Component
+public class LoadShedder {
+
+    public enum Priority {
+        HIGH(1.0),
+        NORMAL(0.9),
+        LOW(0.7);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int[] limits = new int[Priority.values().length];
+    private final Counter[] shed = new Counter[Priority.values().length];
+
+    public LoadShedder(MeterRegistry meterRegistry,
+                       @Value("${app.gateway.load-shedding.max-in-flight:2000}") int maxInFlight) {
+        for (Priority priority : Priority.values()) {
+            limits[priority.ordinal()] = (int) (maxInFlight * priority.share);
+            shed[priority.ordinal()] = meterRegistry.counter("gateway.load.shed", "priority", priority.name());
+        }
+        Gauge.builder("gateway.load.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Admits the request if capacity for its priority is left. Every successful call must be
+     * paired with {@link #release()}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int limit = limits[priority.ordinal()];
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+}
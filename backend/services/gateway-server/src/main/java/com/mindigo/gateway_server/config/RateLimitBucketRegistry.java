@@ -0,0 +1,74 @@
+package com.mindigo.gateway_server.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets of every RateLimit filter, one map per route id. Like {@link DownstreamGuardRegistry}
+ * it outlives route refreshes, so a refresh neither resets callers' quotas nor leaves the previous
+ * filter's buckets behind; idle buckets, and the maps of routes that no longer exist, are swept.
+ */
+@Component
+public class RateLimitBucketRegistry {
+
+    private static final long IDLE_BUCKET_NANOS = Duration.ofMinutes(10).toNanos();
+
+    private final Map<String, Map<String, Bucket>> routeBuckets = new ConcurrentHashMap<>();
+    private Disposable sweeper;
+
+    @PostConstruct
+    public void startSweeper() {
+        sweeper = Flux.interval(Duration.ofMinutes(1))
+                .subscribe(tick -> evictIdleBuckets());
+    }
+
+    @PreDestroy
+    public void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    public Bucket getOrCreate(String routeId, String key, int capacity) {
+        return routeBuckets.computeIfAbsent(routeId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new Bucket(capacity));
+    }
+
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        routeBuckets.values().forEach(buckets -> buckets.values().removeIf(bucket -> bucket.isIdle(now)));
+        // A request racing this recreates the map on its next call, so nothing is lost for good
+        routeBuckets.values().removeIf(Map::isEmpty);
+    }
+
+    static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int capacity) {
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume(long now, double tokensPerNano, int capacity) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastRefill > IDLE_BUCKET_NANOS;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mindigo.gateway_server.config;
+
+import com.mindigo.gateway_server.util.GatewayErrorResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Per-route token-bucket quota keyed by the authenticated user (or client IP for anonymous calls),
+ * preceded by the gateway-wide {@link LoadShedder}. Place it after JwtAuth in the route's filter list
+ * so the verified user id is available.
+ *
+ * Anonymous callers are keyed by the peer address, or with {@code app.gateway.rate-limit.trusted-proxies}
+ * set, by the X-Forwarded-For entry that many proxies to the left of it; entries further left are
+ * whatever the client chose to send.
+ *
+ * <pre>
+ * - name: RateLimit
+ *   args:
+ *     replenishRate: 10   # tokens per second
+ *     burstCapacity: 20
+ *     priority: LOW       # HIGH | NORMAL | LOW
+ * </pre>
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+
+    private final LoadShedder loadShedder;
+    private final RateLimitBucketRegistry bucketRegistry;
+    private final Counter rejected;
+    private final int trustedProxies;
+
+    public RateLimitGatewayFilterFactory(LoadShedder loadShedder,
+                                         RateLimitBucketRegistry bucketRegistry,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.gateway.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        super(Config.class);
+        this.loadShedder = loadShedder;
+        this.bucketRegistry = bucketRegistry;
+        this.rejected = meterRegistry.counter("gateway.ratelimit.rejected");
+        this.trustedProxies = Math.max(0, trustedProxies);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity", "priority");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        double tokensPerNano = config.getReplenishRate() / 1_000_000_000.0;
+        int capacity = config.getBurstCapacity();
+        LoadShedder.Priority priority = config.getPriority();
+
+        return (exchange, chain) -> {
+            if (!loadShedder.tryAcquire(priority)) {
+                return GatewayErrorResponses.write(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Service is busy, please retry shortly", 1);
+            }
+
+            if (capacity > 0) {
+                RateLimitBucketRegistry.Bucket bucket = bucketRegistry.getOrCreate(routeId, resolveKey(exchange), capacity);
+                if (!bucket.tryConsume(System.nanoTime(), tokensPerNano, capacity)) {
+                    loadShedder.release();
+                    rejected.increment();
+                    return GatewayErrorResponses.write(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                            "Too many requests, please slow down", 1);
+                }
+            }
+
+            return chain.filter(exchange)
+                    .doFinally(signal -> loadShedder.release());
+        };
+    }
+
+    private String resolveKey(ServerWebExchange exchange) {
+        String userId = exchange.getAttribute(JwtAuthGatewayFilterFactory.AUTHENTICATED_USER_ID_ATTR);
+        if (userId != null) {
+            return userId;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        InetSocketAddress remote = request.getRemoteAddress();
+        String peer = remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+        String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (trustedProxies == 0 || forwardedFor == null || forwardedFor.isBlank()) {
+            return "ip:" + peer;
+        }
+
+        // Hops are the forwarded entries followed by the peer; the client is trustedProxies from the right
+        String[] forwarded = forwardedFor.split(",");
+        int index = Math.max(0, forwarded.length - trustedProxies);
+        String client = forwarded[index].trim();
+        return "ip:" + (client.isEmpty() ? peer : client);
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        // Tokens added per second; burstCapacity <= 0 disables the quota and keeps only load shedding
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private LoadShedder.Priority priority = LoadShedder.Priority.NORMAL;
+        private String routeId;
+    }
+}
@@ -0,0 +1,353 @@
+package com.mindigo.gateway_server.config;
+
+import com.mindigo.gateway_server.config.ResponseCacheStore.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches successful GET responses of selected paths of a route in the gateway.
+ *
+ * Every cached body gets a strong ETag (SHA-256 of the bytes), so clients revalidating with
+ * {@code If-None-Match} get a 304 straight from the gateway. Within {@code staleSeconds} after the
+ * TTL the stale copy is still served while a single background request refreshes it. With
+ * {@code varyByUser} each authenticated user gets their own entry; place the filter after JwtAuth.
+ * Background refreshes go through the route's {@link DownstreamGuard} (named by {@code downstream},
+ * the route id by default) like any proxied call, so they are shed and counted the same way.
+ *
+ * <pre>
+ * - name: ResponseCache
+ *   args:
+ *     paths: /api/v1/game/snowboarder/top10
+ *     ttlSeconds: 30
+ *     staleSeconds: 60
+ *     varyByUser: false
+ *     invalidateOnWrite: false
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Duration REFRESH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ResponseCacheStore store;
+    private final DownstreamGuardRegistry guardRegistry;
+    private final WebClient webClient;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store,
+                                             DownstreamGuardRegistry guardRegistry,
+                                             ReactorLoadBalancerExchangeFilterFunction lbFunction,
+                                             MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.guardRegistry = guardRegistry;
+        this.webClient = WebClient.builder()
+                .filter(lbFunction)
+                .build();
+
+        this.hits = meterRegistry.counter("gateway.response.cache", "result", "hit");
+        this.staleHits = meterRegistry.counter("gateway.response.cache", "result", "stale");
+        this.misses = meterRegistry.counter("gateway.response.cache", "result", "miss");
+        this.notModified = meterRegistry.counter("gateway.response.cache", "result", "not_modified");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(path.trim()));
+        }
+        long ttlMillis = config.getTtlSeconds() * 1000;
+        long staleMillis = config.getStaleSeconds() * 1000;
+        String downstream = config.getDownstream() != null ? config.getDownstream() : config.getRouteId();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                if (!config.isInvalidateOnWrite() || HttpMethod.HEAD.equals(request.getMethod())) {
+                    return chain.filter(exchange);
+                }
+                // Writes through this gateway drop the route's entries; other gateways catch up within the TTL
+                return chain.filter(exchange)
+                        .doFinally(signal -> store.invalidatePrefix(config.getRouteId() + "|"));
+            }
+            if (!matches(patterns, request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(config, exchange);
+            long now = System.currentTimeMillis();
+            CachedResponse cached = store.get(key);
+
+            if (cached != null) {
+                if (cached.isFresh(now)) {
+                    hits.increment();
+                    return serve(exchange, cached, "HIT");
+                }
+                staleHits.increment();
+                refreshInBackground(exchange, key, downstream, ttlMillis, staleMillis);
+                return serve(exchange, cached, "STALE");
+            }
+
+            misses.increment();
+            return chain.filter(exchange.mutate()
+                    .response(new CachingResponse(exchange, key, ttlMillis, staleMillis))
+                    .build());
+        };
+    }
+
+    private boolean matches(List<PathPattern> patterns, ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String cacheKey(Config config, ServerWebExchange exchange) {
+        StringBuilder key = new StringBuilder(config.getRouteId()).append('|');
+        if (config.isVaryByUser()) {
+            String userId = exchange.getAttribute(JwtAuthGatewayFilterFactory.AUTHENTICATED_USER_ID_ATTR);
+            key.append(userId != null ? userId : "anonymous");
+        }
+        key.append('|').append(exchange.getRequest().getURI().getRawPath());
+        String query = exchange.getRequest().getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        return key.toString();
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (ifNoneMatch(exchange.getRequest(), cached.etag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Re-fetches the stale entry through the load balancer with the same (already authenticated)
+     * request headers. At most one refresh per key runs at a time.
+     */
+    private void refreshInBackground(ServerWebExchange exchange, String key, String downstream,
+                                     long ttlMillis, long staleMillis) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !refreshing.add(key)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String uri = "http://" + route.getUri().getHost() + request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+
+        AtomicBoolean serverError = new AtomicBoolean();
+        Mono<Void> refresh = webClient.get()
+                .uri(URI.create(uri))
+                .headers(headers -> {
+                    headers.addAll(request.getHeaders());
+                    headers.remove(HttpHeaders.HOST);
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                })
+                .exchangeToMono(response -> {
+                    serverError.set(response.statusCode().is5xxServerError());
+                    if (response.statusCode() != HttpStatus.OK
+                            || !isCacheable(response.headers().asHttpHeaders())) {
+                        return response.releaseBody();
+                    }
+                    return response.bodyToMono(byte[].class)
+                            .doOnNext(body -> store.put(key, toCached(body,
+                                    response.headers().asHttpHeaders().getContentType(), ttlMillis, staleMillis)))
+                            .then();
+                })
+                .timeout(REFRESH_TIMEOUT);
+
+        DownstreamGuard guard = guardRegistry.find(downstream);
+        Mono<Void> guarded = guard != null ? guard.execute(() -> refresh, serverError::get) : refresh;
+        guarded.doFinally(signal -> refreshing.remove(key))
+                .subscribe(ignored -> { }, e -> System.err.println("Response cache refresh failed: " + e.getMessage()));
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && (cacheControl == null || !cacheControl.contains("no-store"));
+    }
+
+    private static boolean ifNoneMatch(ServerHttpRequest request, String etag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CachedResponse toCached(byte[] body, MediaType contentType, long ttlMillis, long staleMillis) {
+        long now = System.currentTimeMillis();
+        return new CachedResponse(body, contentType != null ? contentType.toString() : null, etag(body),
+                now + ttlMillis, now + ttlMillis + staleMillis);
+    }
+
+    private static byte[] drain(List<? extends DataBuffer> buffers) {
+        int size = 0;
+        for (DataBuffer buffer : buffers) {
+            size += buffer.readableByteCount();
+        }
+        byte[] bytes = new byte[size];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int count = buffer.readableByteCount();
+            buffer.read(bytes, offset, count);
+            offset += count;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Buffers a cacheable 200 response, stores it and adds the ETag before passing it on. Anything
+     * else (errors, Set-Cookie, oversized bodies) is streamed through untouched; a body without a
+     * Content-Length is buffered only up to the entry limit and streamed on once it exceeds it.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final long ttlMillis;
+        private final long staleMillis;
+
+        CachingResponse(ServerWebExchange exchange, String key, long ttlMillis, long staleMillis) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.ttlMillis = ttlMillis;
+            this.staleMillis = staleMillis;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getDelegate().getHeaders();
+            long declaredLength = headers.getContentLength();
+            if (!HttpStatus.OK.equals(getStatusCode()) || !isCacheable(headers)
+                    || (declaredLength >= 0 && !store.fits(declaredLength))) {
+                return super.writeWith(body);
+            }
+
+            long[] received = {0};
+            return Flux.<DataBuffer>from(body)
+                    // One list with the whole body, or a first list that crossed the limit and then the rest
+                    .bufferUntil(buffer -> !store.fits(received[0] += buffer.readableByteCount()))
+                    .switchOnFirst((first, lists) -> {
+                        if (first.hasValue() && !store.fits(received[0])) {
+                            return getDelegate().writeWith(lists.concatMapIterable(list -> list));
+                        }
+                        return lists.next()
+                                .map(ResponseCacheGatewayFilterFactory::drain)
+                                .defaultIfEmpty(new byte[0])
+                                .flatMap(bytes -> storeAndWrite(headers, bytes));
+                    })
+                    .then();
+        }
+
+        private Mono<Void> storeAndWrite(HttpHeaders headers, byte[] bytes) {
+            CachedResponse cached = toCached(bytes, headers.getContentType(), ttlMillis, staleMillis);
+            store.put(key, cached);
+            headers.setETag(cached.etag());
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+
+            if (ifNoneMatch(exchange.getRequest(), cached.etag())) {
+                notModified.increment();
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                getDelegate().setStatusCode(HttpStatus.NOT_MODIFIED);
+                return getDelegate().setComplete();
+            }
+            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+        // Path patterns of the route whose GET responses may be cached
+        private List<String> paths = new ArrayList<>();
+        private long ttlSeconds = 30;
+        // How long after the TTL a stale copy may still be served while it is refreshed
+        private long staleSeconds = 30;
+        // Keep a separate entry per authenticated user (for responses that depend on the caller)
+        private boolean varyByUser = false;
+        // Drop the route's cached entries after any POST/PUT/PATCH/DELETE on it
+        private boolean invalidateOnWrite = false;
+        // DownstreamGuard that background refreshes go through; defaults to the route id like the guard's name
+        private String downstream;
+        private String routeId;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mindigo.gateway_server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU store for {@link ResponseCacheGatewayFilterFactory}, bounded by the total size of the cached
+ * bodies rather than by entry count, since one counselor list can weigh as much as hundreds of small
+ * leaderboard responses.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private long totalBytes;
+
+    public ResponseCacheStore(MeterRegistry meterRegistry,
+                              @Value("${app.gateway.response-cache.max-bytes:33554432}") long maxBytes,
+                              @Value("${app.gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+
+        Gauge.builder("gateway.response.cache.bytes", this, ResponseCacheStore::getTotalBytes).register(meterRegistry);
+        Gauge.builder("gateway.response.cache.size", this, ResponseCacheStore::getSize).register(meterRegistry);
+    }
+
+    public synchronized CachedResponse get(String key) {
+        CachedResponse entry = entries.get(key);
+        if (entry != null && entry.staleUntil() <= System.currentTimeMillis()) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(String key, CachedResponse entry) {
+        if (entry.body().length > maxEntryBytes) {
+            return;
+        }
+
+        remove(key);
+        entries.put(key, entry);
+        totalBytes += entry.body().length;
+
+        // Oldest accessed first
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().getValue().body().length;
+            it.remove();
+        }
+    }
+
+    public synchronized void invalidatePrefix(String prefix) {
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            if (entry.getKey().startsWith(prefix)) {
+                totalBytes -= entry.getValue().body().length;
+                it.remove();
+            }
+        }
+    }
+
+    public boolean fits(long size) {
+        return size <= maxEntryBytes;
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.body().length;
+        }
+    }
+
+    private synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized int getSize() {
+        return entries.size();
+    }
+
+    public record CachedResponse(byte[] body, String contentType, String etag, long freshUntil, long staleUntil) {
+
+        boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+    }
+}
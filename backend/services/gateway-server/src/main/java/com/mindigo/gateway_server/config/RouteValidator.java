@@ -19,9 +19,17 @@ public class RouteValidator {
             "/api/v1/genai/test"
     );
 
-    // The predicate returns 'true' if the request path does NOT start with any of the public prefixes.
+    // Secured even though they sit under one of the public prefixes above.
+    public static final List<String> securedApiEndpoints = List.of(
+            "/api/v1/auth/profiles:batch"
+    );
+
+    // The predicate returns 'true' if the request path is listed as secured or does NOT start with any of the public prefixes.
     public Predicate<ServerHttpRequest> isSecured =
-            request -> openApiEndpoints
+            request -> securedApiEndpoints
+                    .stream()
+                    .anyMatch(uri -> request.getURI().getPath().startsWith(uri))
+                    || openApiEndpoints
                     .stream()
                     .noneMatch(uri -> request.getURI().getPath().startsWith(uri));
 }
\ No newline at end of file
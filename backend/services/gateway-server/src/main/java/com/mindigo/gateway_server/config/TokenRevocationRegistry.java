@@ -0,0 +1,256 @@
+package com.mindigo.gateway_server.config;
+
+import com.mindigo.gateway_server.util.JwtUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory deny set fed by auth-service's revocation feed.
+ *
+ * Logged-out tokens are kept by digest, deactivated users by id together with the revocation time,
+ * so lookups are two hash probes on the request path. Entries are dropped once every token they can
+ * affect has expired, which keeps both maps small.
+ *
+ * The feed is ordered by revocation time. Revocations can commit slightly after newer ones, so every
+ * poll starts {@code overlap-ms} before the newest revocation seen; applying an event twice is harmless.
+ * Until the first complete snapshot has loaded the registry is not {@link #isReady() ready} and
+ * callers must not accept tokens.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Revocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private final WebClient webClient;
+    private final JwtUtil jwtUtil;
+    private final Duration pollInterval;
+    private final long overlapMs;
+    private final String serviceToken;
+
+    // Newest revokedAt (epoch millis) applied so far
+    private volatile long watermark = 0;
+    private volatile boolean ready = false;
+    private Disposable subscription;
+
+    public TokenRevocationRegistry(ReactorLoadBalancerExchangeFilterFunction lbFunction,
+                                   JwtUtil jwtUtil,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.auth.revocation.poll-interval-ms:2000}") long pollIntervalMs,
+                                   @Value("${app.auth.revocation.overlap-ms:60000}") long overlapMs,
+                                   @Value("${app.internal.service-token:}") String serviceToken) {
+        this.webClient = WebClient.builder()
+                .filter(lbFunction)
+                .build();
+        this.jwtUtil = jwtUtil;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.overlapMs = overlapMs;
+        this.serviceToken = serviceToken;
+
+        Gauge.builder("gateway.auth.revocation.tokens", revokedTokens, Map::size).register(meterRegistry);
+        Gauge.builder("gateway.auth.revocation.users", revokedUsers, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Whether the first full snapshot of the feed has been loaded.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRevoked(String token, Long userId) {
+        if (!revokedTokens.isEmpty() && revokedTokens.containsKey(jwtUtil.digest(token))) {
+            return true;
+        }
+        if (userId == null || revokedUsers.isEmpty()) {
+            return false;
+        }
+
+        Revocation revocation = revokedUsers.get(userId);
+        if (revocation == null) {
+            return false;
+        }
+        // Tokens issued after the revocation (e.g. after reactivation) stay valid
+        Long issuedAt = jwtUtil.peekIssuedAtMillis(token);
+        return issuedAt == null || issuedAt <= revocation.revokedAt();
+    }
+
+    private Mono<Void> poll() {
+        long since = Math.max(0, watermark - overlapMs);
+        return fetch(since, 0)
+                .expand(feed -> feed.isHasMore() ? fetch(feed.getCursor(), feed.getCursorId()) : Mono.empty())
+                .doOnNext(this::apply)
+                .then(Mono.<Void>fromRunnable(this::pruneExpired))
+                .doOnSuccess(done -> ready = true)
+                .onErrorResume(e -> {
+                    // Keep the current deny set and retry on the next tick
+                    System.err.println("Revocation feed poll failed: " + e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Feed> fetch(long since, long afterId) {
+        return webClient.get()
+                .uri("http://AUTH-SERVICE/internal/revocations?since=" + since + "&afterId=" + afterId)
+                .header("X-Internal-Token", serviceToken)
+                .retrieve()
+                .bodyToMono(FeedResponse.class)
+                .flatMap(response -> response.isSuccess() && response.getData() != null
+                        ? Mono.just(response.getData())
+                        : Mono.error(new IllegalStateException("Unsuccessful revocation feed response")));
+    }
+
+    private void apply(Feed feed) {
+        if (feed.getEvents() == null) {
+            return;
+        }
+        for (Event event : feed.getEvents()) {
+            if ("TOKEN".equals(event.getType())) {
+                revokedTokens.put(event.getSubject(), event.getExpiresAt());
+            } else if ("USER".equals(event.getType())) {
+                revokedUsers.merge(Long.valueOf(event.getSubject()),
+                        new Revocation(event.getRevokedAt(), event.getExpiresAt()),
+                        (a, b) -> a.revokedAt() >= b.revokedAt() ? a : b);
+            }
+            watermark = Math.max(watermark, event.getRevokedAt());
+        }
+    }
+
+    private void pruneExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAt() <= now);
+    }
+
+    private record Revocation(long revokedAt, long expiresAt) {
+    }
+
+    // Mirrors ApiResponseClass<RevocationFeedResponse> from auth service
+    public static class FeedResponse {
+        private boolean success;
+        private Feed data;
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public Feed getData() {
+            return data;
+        }
+
+        public void setData(Feed data) {
+            this.data = data;
+        }
+    }
+
+    public static class Feed {
+        private long cursor;
+        private long cursorId;
+        private boolean hasMore;
+        private List<Event> events;
+
+        public long getCursor() {
+            return cursor;
+        }
+
+        public void setCursor(long cursor) {
+            this.cursor = cursor;
+        }
+
+        public long getCursorId() {
+            return cursorId;
+        }
+
+        public void setCursorId(long cursorId) {
+            this.cursorId = cursorId;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+
+        public void setHasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+        }
+
+        public List<Event> getEvents() {
+            return events;
+        }
+
+        public void setEvents(List<Event> events) {
+            this.events = events;
+        }
+    }
+
+    public static class Event {
+        private String type;
+        private String subject;
+        private long revokedAt;
+        private long expiresAt;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public void setSubject(String subject) {
+            this.subject = subject;
+        }
+
+        public long getRevokedAt() {
+            return revokedAt;
+        }
+
+        public void setRevokedAt(long revokedAt) {
+            this.revokedAt = revokedAt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mindigo.gateway_server.config;
+
+import com.mindigo.gateway_server.config.JwtAuthGatewayFilterFactory.ValidateResponse;
+import com.mindigo.gateway_server.util.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches successful remote /validate results per token so repeated requests with the same
+ * access token cookie skip the auth-service round trip.
+ *
+ * Entries are keyed by a SHA-256 digest of the token (the raw JWT is never kept as a key),
+ * live for at most {@code ttl-seconds} and never beyond the token's own {@code exp}.
+ * Concurrent misses for the same token share a single in-flight {@link Mono}.
+ */
+@Component
+public class TokenValidationCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Mono<ValidateResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final JwtUtil jwtUtil;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public TokenValidationCache(JwtUtil jwtUtil,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.auth.validation-cache.max-entries:10000}") int maxEntries,
+                                @Value("${app.auth.validation-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+
+        this.hits = meterRegistry.counter("gateway.auth.validation.cache", "result", "hit");
+        this.misses = meterRegistry.counter("gateway.auth.validation.cache", "result", "miss");
+        this.coalesced = meterRegistry.counter("gateway.auth.validation.cache", "result", "coalesced");
+        Gauge.builder("gateway.auth.validation.cache.size", entries, Map::size).register(meterRegistry);
+        Gauge.builder("gateway.auth.validation.inflight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached validation for the token, or subscribes to {@code loader} exactly once
+     * no matter how many callers ask for the same token while it is running.
+     */
+    public Mono<ValidateResponse> get(String token, Supplier<Mono<ValidateResponse>> loader) {
+        String key = jwtUtil.digest(token);
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return Mono.just(entry.response());
+            }
+            entries.remove(key, entry);
+        }
+
+        boolean[] created = new boolean[1];
+        Mono<ValidateResponse> shared = inFlight.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return loader.get()
+                    .doOnNext(response -> put(k, token, response))
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache();
+        });
+
+        if (created[0]) {
+            misses.increment();
+        } else {
+            coalesced.increment();
+        }
+        return shared;
+    }
+
+    public void invalidate(String token) {
+        entries.remove(jwtUtil.digest(token));
+    }
+
+    private void put(String key, String token, ValidateResponse response) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Long tokenExpiry = jwtUtil.peekExpirationMillis(token);
+        if (tokenExpiry != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiry);
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(key, new Entry(response, expiresAt));
+    }
+
+    // Drop expired entries first; if that is not enough, shed arbitrary entries down to 90% capacity
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+
+        Iterator<String> it = entries.keySet().iterator();
+        int target = (int) (maxEntries * 0.9);
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry(ValidateResponse response, long expiresAt) {
+    }
+}
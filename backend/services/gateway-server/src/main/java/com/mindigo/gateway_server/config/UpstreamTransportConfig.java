@@ -0,0 +1,38 @@
+package com.mindigo.gateway_server.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class UpstreamTransportConfig {
+
+    /**
+     * Services to reach over h2c, keyed by service id:
+     * <pre>
+     * app.gateway.upstream.h2c:
+     *   discussion-service:
+     *     max-connections: 4
+     *     max-concurrent-streams: 100
+     * </pre>
+     */
+    @Bean
+    public H2cRoutingFilter h2cRoutingFilter(HttpClient httpClient,
+                                             ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                             HttpClientProperties properties,
+                                             Environment environment) {
+        Map<String, H2cRoutingFilter.Settings> services = Binder.get(environment)
+                .bind("app.gateway.upstream.h2c", Bindable.mapOf(String.class, H2cRoutingFilter.Settings.class))
+                .orElse(Map.of());
+        return new H2cRoutingFilter(httpClient, headersFilters, properties, services);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mindigo.gateway_server.controller;
+
+import com.mindigo.gateway_server.config.JwtAuthGatewayFilterFactory.ValidateResponse;
+import com.mindigo.gateway_server.config.TokenRevocationRegistry;
+import com.mindigo.gateway_server.service.DashboardAggregationService;
+import com.mindigo.gateway_server.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Backend-for-frontend endpoint for the wellness dashboard: one authenticated round trip from the
+ * browser instead of five. Served by the gateway itself, so it is not behind a route's JwtAuth
+ * filter and verifies the access token cookie here.
+ */
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private static final int MAX_DAYS = 31;
+
+    private final DashboardAggregationService aggregationService;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationRegistry revocationRegistry;
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<Map<String, Object>>> getSummary(
+            @CookieValue(name = "accessToken", required = false) String jwt,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate today,
+            @RequestParam(defaultValue = "7") int moodDays,
+            @RequestParam(defaultValue = "7") int sleepDays) {
+
+        if (jwt == null) {
+            return Mono.just(error(HttpStatus.UNAUTHORIZED, "Missing JWT token in cookie"));
+        }
+
+        ValidateResponse user;
+        try {
+            user = ValidateResponse.fromClaims(jwtUtil.verify(jwt));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.just(error(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        }
+        if (!revocationRegistry.isReady()) {
+            return Mono.just(error(HttpStatus.SERVICE_UNAVAILABLE, "Authentication service unavailable"));
+        }
+        if (user.getUserId() == null || revocationRegistry.isRevoked(jwt, user.getUserId())) {
+            return Mono.just(error(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        }
+
+        if (moodDays < 1 || moodDays > MAX_DAYS || sleepDays < 1 || sleepDays > MAX_DAYS) {
+            return Mono.just(error(HttpStatus.BAD_REQUEST, "moodDays and sleepDays must be between 1 and " + MAX_DAYS));
+        }
+
+        return aggregationService.getSummary(user, today, moodDays, sleepDays)
+                .map(summary -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("success", true);
+                    body.put("data", summary);
+                    body.put("message", "Dashboard summary retrieved");
+                    return ResponseEntity.ok(body);
+                });
+    }
+
+    // Same shape as GatewayErrorResponses
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,24 @@
+package com.mindigo.gateway_server.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One section of the dashboard summary. {@code status} is "ok" with the downstream's {@code data},
+ * or "error" / "timeout" with a short reason so the client can render the rest of the page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DashboardPart(String status, JsonNode data, String error) {
+
+    public static DashboardPart ok(JsonNode data) {
+        return new DashboardPart("ok", data, null);
+    }
+
+    public static DashboardPart failed(String error) {
+        return new DashboardPart("error", null, error);
+    }
+
+    public static DashboardPart timedOut() {
+        return new DashboardPart("timeout", null, "No response in time");
+    }
+}
@@ -0,0 +1,99 @@
+package com.mindigo.gateway_server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mindigo.gateway_server.config.DownstreamGuard;
+import com.mindigo.gateway_server.config.DownstreamGuardRegistry;
+import com.mindigo.gateway_server.config.DownstreamUnavailableException;
+import com.mindigo.gateway_server.config.JwtAuthGatewayFilterFactory.ValidateResponse;
+import com.mindigo.gateway_server.dto.DashboardPart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fetches everything the wellness dashboard shows in one go: the calls to content-service and
+ * appointment-service run in parallel, each bounded by its own timeout, and a failing part is
+ * reported in place instead of failing the whole summary. The part timeout applies inside the
+ * downstream's guard, so a part that times out counts as a failed call towards its circuit and limit.
+ */
+@Service
+public class DashboardAggregationService {
+
+    private static final String CONTENT_SERVICE = "content-service";
+    private static final String APPOINTMENT_SERVICE = "appointment-service";
+
+    private final WebClient webClient;
+    private final DownstreamGuardRegistry guardRegistry;
+    private final Duration partTimeout;
+
+    public DashboardAggregationService(ReactorLoadBalancerExchangeFilterFunction lbFunction,
+                                       DownstreamGuardRegistry guardRegistry,
+                                       @Value("${app.gateway.dashboard.part-timeout-ms:2000}") long partTimeoutMs) {
+        this.webClient = WebClient.builder()
+                .filter(lbFunction)
+                .build();
+        this.guardRegistry = guardRegistry;
+        this.partTimeout = Duration.ofMillis(partTimeoutMs);
+    }
+
+    public Mono<Map<String, DashboardPart>> getSummary(ValidateResponse user, LocalDate today, int moodDays, int sleepDays) {
+        return Mono.zip(
+                fetch(CONTENT_SERVICE, "/api/v1/content/mood/get-mood?days=" + moodDays + "&today=" + today, user),
+                fetch(CONTENT_SERVICE, "/api/v1/content/sleep/last?days=" + sleepDays + "&today=" + today, user),
+                fetch(CONTENT_SERVICE, "/api/v1/content/breathing/session?date=" + today, user),
+                fetch(APPOINTMENT_SERVICE, "/api/v1/appointments/my", user),
+                fetch(CONTENT_SERVICE, "/api/v1/content/quiz/sessions", user)
+        ).map(parts -> {
+            Map<String, DashboardPart> summary = new LinkedHashMap<>();
+            summary.put("mood", parts.getT1());
+            summary.put("sleep", parts.getT2());
+            summary.put("breathing", parts.getT3());
+            summary.put("appointments", parts.getT4());
+            summary.put("quizSessions", parts.getT5());
+            return summary;
+        });
+    }
+
+    private Mono<DashboardPart> fetch(String service, String pathAndQuery, ValidateResponse user) {
+        // Same guard as the service's route (routes register theirs at startup), so limits are shared
+        DownstreamGuard guard = guardRegistry.getOrCreate(service, new DownstreamGuardRegistry.Settings());
+
+        return guard.execute(() -> webClient.get()
+                        .uri("http://" + service + pathAndQuery)
+                        .header("X-User-Id", String.valueOf(user.getUserId()))
+                        .header("X-User-Email", user.getEmail())
+                        .header("X-User-Role", user.getRole())
+                        .header("X-User-Name", user.getUserName())
+                        .header("X-Authenticated", "true")
+                        .exchangeToMono(response -> {
+                            if (response.statusCode().is5xxServerError()) {
+                                return response.releaseBody().then(Mono.<JsonNode>error(
+                                        new IllegalStateException(service + " error: " + response.statusCode())));
+                            }
+                            // 4xx bodies carry the service's ApiResponseClass error message
+                            return response.bodyToMono(JsonNode.class);
+                        })
+                        .timeout(partTimeout), () -> false)
+                .map(body -> body.path("success").asBoolean(false)
+                        ? DashboardPart.ok(body.get("data"))
+                        : DashboardPart.failed(body.path("message").asText("Request failed")))
+                .defaultIfEmpty(DashboardPart.failed("Empty response"))
+                // The guard reports the timeout as a 504 DownstreamUnavailableException
+                .onErrorResume(DownstreamUnavailableException.class, e -> Mono.just(
+                        e.getStatus() == HttpStatus.GATEWAY_TIMEOUT
+                                ? DashboardPart.timedOut()
+                                : DashboardPart.failed(e.getMessage())))
+                .onErrorResume(e -> {
+                    System.err.println("Dashboard part " + pathAndQuery + " failed: " + e.getMessage());
+                    return Mono.just(DashboardPart.failed("Service unavailable"));
+                });
+    }
+}
@@ -0,0 +1,32 @@
+package com.mindigo.gateway_server.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+// Writes the gateway's JSON error body: {"success":false,"error":"<reason>","message":"<message>"}
+public final class GatewayErrorResponses {
+
+    private GatewayErrorResponses() {
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add("Content-Type", "application/json");
+
+        String body = String.format("{\"success\":false,\"error\":\"%s\",\"message\":\"%s\"}",
+                status.getReasonPhrase(), message);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message, long retryAfterSeconds) {
+        exchange.getResponse().getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        return write(exchange, status, message);
+    }
+}
@@ -2,27 +2,71 @@ package com.mindigo.gateway_server.util;
 
 //import com.mindigo.auth_service.user.User;
 //import com.mindigo.auth_service.user.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindigo.gateway_server.config.JwksKeySet;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
-
 public class JwtUtil {
 
-    // Base64 encoded key
-    private static final String SECRET_KEY = "MkY1WUY5OUhxRGNzOURSRWFiYnNiamZxN2JNSnBucFo=";
+    private final JwksKeySet keySet;
+    // HMAC key for tokens issued before auth-service switched to ES256, null once that is turned off
+    private final SecretKey legacyKey;
+    private final JwtParser parser;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public JwtUtil(JwksKeySet keySet,
+                   @Value("${app.jwt.secret-key:}") String secretKey,
+                   @Value("${app.jwt.legacy-hs256-verification:true}") boolean legacyHs256Verification) {
+        this.keySet = keySet;
+        this.legacyKey = legacyHs256Verification && !secretKey.isBlank() ? getSignInKey(secretKey) : null;
+        // Parser is immutable and thread-safe, so build it once instead of per token
+        this.parser = Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    // jjwt rejects a key that does not match the header's alg, so an ES256 kid can't be paired with HS256
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid != null) {
+            Key key = keySet.get(kid);
+            if (key == null) {
+                throw new JwtException("Unknown signing key: " + kid);
+            }
+            return key;
+        }
+        if (legacyKey != null && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            return legacyKey;
+        }
+        throw new JwtException("Token has no signing key id");
+    }
 
     private boolean isTokenExpired(String token){
         return extractExpiration(token).before(new Date());
@@ -37,8 +81,8 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private SecretKey getSignInKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+    private static SecretKey getSignInKey(String secretKey){
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
@@ -47,11 +91,52 @@ public class JwtUtil {
         return claimResolver.apply(claims);
     }
 
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is forged, malformed or expired.
+     */
+    public Claims verify(String token){
+        return extractAllClaims(token);
+    }
+
+    /**
+     * Reads the "exp" claim WITHOUT verifying the signature. Only use it on tokens that were
+     * already validated elsewhere, e.g. to bound how long a remote validation result is cached.
+     */
+    public Long peekExpirationMillis(String token){
+        return peekTimestampClaim(token, "exp");
+    }
+
+    // Same caveat as peekExpirationMillis
+    public Long peekIssuedAtMillis(String token){
+        return peekTimestampClaim(token, "iat");
+    }
+
+    // SHA-256, base64url without padding; matches TokenDigest in auth-service
+    public String digest(String token){
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Long peekTimestampClaim(String token, String claim){
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            JsonNode value = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get(claim);
+            return value != null && value.canConvertToLong() ? value.asLong() * 1000 : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private Claims extractAllClaims(String token){
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }